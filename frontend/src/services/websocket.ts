@@ -6,6 +6,8 @@ class WebSocketService {
   private maxReconnectAttempts = 5;
   private reconnectDelay = 1000;
   private listeners: Map<string, Function[]> = new Map();
+  // Topic changes made by the app, replayed after every (re)connect
+  private subscriptions: { action: 'subscribe' | 'unsubscribe'; topics: string[] }[] = [];
 
   constructor(private url: string = 'ws://localhost:8080/ws') {}
 
@@ -17,6 +19,7 @@ class WebSocketService {
       this.ws.onopen = () => {
         console.log('WebSocket connected successfully');
         this.reconnectAttempts = 0;
+        this.subscriptions.forEach(request => this.send(request));
         this.emit('connected', true);
       };
 
@@ -94,6 +97,22 @@ class WebSocketService {
     }
   }
 
+  // Topics: orders, orders:product=<name>, analytics, analytics:summary, topProducts, recommendations.
+  // A new connection starts on orders, analytics and recommendations.
+  subscribe(topics: string[]): void {
+    this.subscriptions.push({ action: 'subscribe', topics });
+    if (this.isConnected()) {
+      this.send({ action: 'subscribe', topics });
+    }
+  }
+
+  unsubscribe(topics: string[]): void {
+    this.subscriptions.push({ action: 'unsubscribe', topics });
+    if (this.isConnected()) {
+      this.send({ action: 'unsubscribe', topics });
+    }
+  }
+
   disconnect(): void {
     if (this.ws) {
       console.log('Disconnecting WebSocket');
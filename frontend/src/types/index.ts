@@ -15,6 +15,28 @@ export interface Analytics {
   recentOrders: Order[];
   revenueChange: number;
   ordersInLastMinute: number;
+  windows?: RevenueWindow[];
+  version?: number;
+}
+
+// Fields of Analytics that changed between two versions; new recent orders
+// arrive as recentOrdersAdded (newest first) with the resulting list size
+export interface AnalyticsDelta {
+  version: number;
+  baseVersion: number;
+  changes: Partial<Analytics> & {
+    recentOrdersAdded?: Order[];
+    recentOrdersSize?: number;
+  };
+}
+
+export interface RevenueWindow {
+  window: string;
+  revenue: number;
+  orders: number;
+  previousRevenue: number;
+  previousOrders: number;
+  revenueChange: number;
 }
 
 export interface TopProduct {
@@ -22,6 +44,9 @@ export interface TopProduct {
   totalSales: number;
   quantity: number;
   percentage: number;
+  approximate?: boolean;
+  salesError?: number;
+  quantityError?: number;
 }
 
 export interface Recommendation {
@@ -33,8 +58,14 @@ export interface Recommendation {
   impact: string;
 }
 
+export interface RecommendationDiff {
+  upserted: Recommendation[];
+  removed: string[];
+}
+
 export interface WebSocketMessage {
-  type: 'new_order' | 'analytics_update' | 'recommendation_update';
+  type: 'connected' | 'new_order' | 'analytics_update' | 'analytics_delta' | 'analytics_summary' | 'top_products'
+    | 'recommendation' | 'recommendations_diff' | 'recommendation_update' | 'subscriptions' | 'error';
   data: any;
 }
 
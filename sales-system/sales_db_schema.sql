@@ -15,6 +15,61 @@ CREATE TABLE IF NOT EXISTS orders (
     PRIMARY KEY (id)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
+-- Id allocation table for the pooled orders_seq generator (MySQL has no native sequences)
+CREATE TABLE IF NOT EXISTS orders_seq (
+    next_val BIGINT
+) ENGINE=InnoDB;
+
+-- Start one allocation block (allocationSize = 50) past existing ids; only the first run adds the row
+INSERT INTO orders_seq (next_val)
+SELECT start.next_val FROM (SELECT COALESCE(MAX(id), 0) + 51 AS next_val FROM orders) start
+WHERE NOT EXISTS (SELECT 1 FROM orders_seq);
+
 -- Create indexes for better performance
 CREATE INDEX idx_orders_date ON orders(date);
-CREATE INDEX idx_orders_product_name ON orders(product_name);
\ No newline at end of file
+CREATE INDEX idx_orders_product_name ON orders(product_name);
+-- Keyset pagination and the recent-orders query sort on (created_at, id)
+CREATE INDEX idx_orders_created_at_id ON orders(created_at, id);
+-- Rollups maintained by RollupService (rebuilt from orders when out of step)
+CREATE TABLE IF NOT EXISTS product_totals (
+    product_name VARCHAR(255) NOT NULL,
+    revenue DOUBLE NOT NULL,
+    quantity BIGINT NOT NULL,
+    order_count BIGINT NOT NULL,
+    PRIMARY KEY (product_name)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+CREATE INDEX idx_product_totals_revenue ON product_totals(revenue);
+
+CREATE TABLE IF NOT EXISTS product_buckets (
+    product_name VARCHAR(255) NOT NULL,
+    granularity VARCHAR(8) NOT NULL,
+    bucket_start DATETIME NOT NULL,
+    revenue DOUBLE NOT NULL,
+    quantity BIGINT NOT NULL,
+    order_count BIGINT NOT NULL,
+    PRIMARY KEY (product_name, granularity, bucket_start)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+CREATE INDEX idx_product_buckets_start ON product_buckets(granularity, bucket_start);
+
+-- Revenue / quantity / order count series by business date; minute and hour buckets are compacted after their retention
+CREATE TABLE IF NOT EXISTS sales_buckets (
+    granularity VARCHAR(8) NOT NULL,
+    bucket_start DATETIME NOT NULL,
+    product_name VARCHAR(255) NOT NULL,
+    revenue DOUBLE NOT NULL,
+    quantity BIGINT NOT NULL,
+    order_count BIGINT NOT NULL,
+    PRIMARY KEY (granularity, bucket_start, product_name)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+CREATE INDEX idx_sales_buckets_series ON sales_buckets(granularity, bucket_start);
+CREATE INDEX idx_sales_buckets_product ON sales_buckets(product_name, granularity, bucket_start);
+
+-- Cluster nodes using this database, refreshed every heartbeat; a node finding another live one refuses to start
+CREATE TABLE IF NOT EXISTS cluster_nodes (
+    node_id VARCHAR(255) NOT NULL,
+    heartbeat_at DATETIME NOT NULL,
+    PRIMARY KEY (node_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
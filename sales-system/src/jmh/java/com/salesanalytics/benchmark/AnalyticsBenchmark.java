@@ -0,0 +1,87 @@
+package com.salesanalytics.benchmark;
+
+import com.salesanalytics.analytics.AnalyticsEngine;
+import com.salesanalytics.dto.Analytics;
+import com.salesanalytics.dto.RangeAnalytics;
+import com.salesanalytics.entity.BucketGranularity;
+import com.salesanalytics.rollup.RollupService;
+import com.salesanalytics.service.AnalyticsQueryService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * getAnalytics() against growing orders tables. The snapshot itself should
+ * stay flat; reloadEngine (startup load from the rollups) scales with the
+ * number of products, and rebuildRollups is the only full-table scan left.
+ * The range benchmarks read the sales_buckets series and should not grow
+ * with the number of orders either.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class AnalyticsBenchmark {
+
+    @Param({"10000", "100000", "1000000", "10000000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private AnalyticsQueryService analyticsQueryService;
+    private AnalyticsEngine analyticsEngine;
+    private RollupService rollupService;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        context = BenchmarkContext.start(BenchmarkContext.seeded(rows));
+        analyticsQueryService = context.getBean(AnalyticsQueryService.class);
+        analyticsEngine = context.getBean(AnalyticsEngine.class);
+        rollupService = context.getBean(RollupService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Analytics getAnalytics() {
+        return analyticsQueryService.getAnalytics();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public RangeAnalytics rangeYearDaily() {
+        LocalDateTime now = LocalDateTime.now();
+        return analyticsQueryService.getRange(now.minusYears(1), now, BucketGranularity.DAY, null);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public RangeAnalytics rangeWeekHourlyProduct() {
+        LocalDateTime now = LocalDateTime.now();
+        return analyticsQueryService.getRange(now.minusWeeks(1), now, BucketGranularity.HOUR, "Product-1");
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void reloadEngine() {
+        analyticsEngine.reload();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public void rebuildRollups() {
+        rollupService.rebuild();
+    }
+}
@@ -0,0 +1,136 @@
+package com.salesanalytics.benchmark;
+
+import com.salesanalytics.SalesAnalyticsApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Seeds embedded SQLite databases and boots the application against them
+ * with the sqlite profile (WAL, single writer, reader pool).
+ * Seeded databases are cached under target/jmh-data per row count, so only
+ * the first trial for a given size pays for the inserts.
+ */
+final class BenchmarkContext {
+
+    static final int PRODUCTS = 500;
+
+    private static final Path DATA_DIR = Paths.get("target", "jmh-data");
+    private static final int INSERT_BATCH = 10_000;
+
+    private BenchmarkContext() {}
+
+    /** A seeded database shared by read-only benchmarks. */
+    static Path seeded(int rows) throws IOException, SQLException {
+        Files.createDirectories(DATA_DIR);
+        Path db = DATA_DIR.resolve("orders-" + rows + ".db");
+        if (!Files.exists(db)) {
+            Path tmp = DATA_DIR.resolve("orders-" + rows + ".db.tmp");
+            Files.deleteIfExists(tmp);
+            seed(tmp, rows);
+            Files.move(tmp, db, StandardCopyOption.ATOMIC_MOVE);
+        }
+        return db;
+    }
+
+    /** A private copy of a seeded database for benchmarks that write. */
+    static Path scratchCopy(int rows) throws IOException, SQLException {
+        Path copy = Files.createTempFile(DATA_DIR, "scratch-" + rows + "-", ".db");
+        Files.copy(seeded(rows), copy, StandardCopyOption.REPLACE_EXISTING);
+        copy.toFile().deleteOnExit();
+        return copy;
+    }
+
+    static ConfigurableApplicationContext start(Path db, String... extraProperties) {
+        List<String> properties = new ArrayList<>(List.of(
+            "server.port=0",
+            "spring.datasource.url=jdbc:sqlite:" + db.toAbsolutePath(),
+            "spring.jpa.hibernate.ddl-auto=update",
+            "ai.recommendations.enabled=false",
+            // Stub sessions never answer pings
+            "websocket.idle-timeout-ms=0",
+            "deepseek.api.key=benchmark",
+            "logging.level.root=WARN",
+            "logging.level.org.springframework.web.socket=WARN"
+        ));
+        properties.addAll(List.of(extraProperties));
+
+        // As command-line arguments, so they override the application property files
+        return new SpringApplicationBuilder(SalesAnalyticsApplication.class)
+            .profiles("sqlite")
+            .logStartupInfo(false)
+            .run(properties.stream().map(property -> "--" + property).toArray(String[]::new));
+    }
+
+    /**
+     * Fails the trial if the context did not come up in the requested thread
+     * mode, so a lost override cannot pass platform-thread numbers off as
+     * virtual-thread ones.
+     */
+    static void requireVirtualThreads(ConfigurableApplicationContext context, boolean expected) {
+        TaskExecutor sendExecutor = context.getBean("webSocketSendExecutor", TaskExecutor.class);
+        boolean actual = context.getEnvironment().getProperty("spring.threads.virtual.enabled", Boolean.class, false)
+            && sendExecutor instanceof SimpleAsyncTaskExecutor;
+        if (actual != expected) {
+            throw new IllegalStateException("Expected virtualThreads=" + expected + " but the context started with "
+                + (actual ? "virtual" : "platform") + " threads");
+        }
+    }
+
+    private static void seed(Path db, int rows) throws SQLException {
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + db.toAbsolutePath())) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("PRAGMA journal_mode=OFF");
+                statement.execute("PRAGMA synchronous=OFF");
+                statement.execute("CREATE TABLE orders (id bigint not null primary key, "
+                    + "product_name varchar(255) not null, quantity integer not null, price float not null, "
+                    + "date timestamp not null, created_at timestamp)");
+                statement.execute("CREATE TABLE orders_seq (next_val bigint)");
+                statement.execute("INSERT INTO orders_seq VALUES (" + (rows + 51) + ")");
+            }
+
+            connection.setAutoCommit(false);
+            LocalDateTime start = LocalDateTime.now().minusDays(30);
+            long stepMillis = Math.max(1, 30L * 24 * 3600 * 1000 / rows);
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "INSERT INTO orders (id, product_name, quantity, price, date, created_at) VALUES (?, ?, ?, ?, ?, ?)")) {
+                for (int i = 1; i <= rows; i++) {
+                    Timestamp createdAt = Timestamp.valueOf(start.plusNanos(i * stepMillis * 1_000_000));
+                    insert.setLong(1, i);
+                    insert.setString(2, "Product-" + (i % PRODUCTS));
+                    insert.setInt(3, 1 + i % 5);
+                    insert.setDouble(4, 5.0 + (i % 200));
+                    insert.setTimestamp(5, createdAt);
+                    insert.setTimestamp(6, createdAt);
+                    insert.addBatch();
+                    if (i % INSERT_BATCH == 0) {
+                        insert.executeBatch();
+                    }
+                }
+                insert.executeBatch();
+            }
+            connection.commit();
+
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CREATE INDEX idx_orders_created_at_id ON orders(created_at, id)");
+            }
+            connection.commit();
+        }
+    }
+}
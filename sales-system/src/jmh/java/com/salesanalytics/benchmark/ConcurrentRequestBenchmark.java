@@ -0,0 +1,77 @@
+package com.salesanalytics.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HTTP load test: many concurrent clients posting orders (a JDBC write per
+ * request) and reading analytics, with Tomcat on its platform-thread pool
+ * versus virtual threads. Compare throughput and the sampled latency
+ * percentiles of the two modes.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Threads(512)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ConcurrentRequestBenchmark {
+
+    @Param({"false", "true"})
+    public boolean virtualThreads;
+
+    @Param({"10000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private URI ordersUri;
+    private URI analyticsUri;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        context = BenchmarkContext.start(BenchmarkContext.scratchCopy(rows),
+            "spring.threads.virtual.enabled=" + virtualThreads,
+            "orders.ingest.mode=sync");
+        BenchmarkContext.requireVirtualThreads(context, virtualThreads);
+        String port = context.getEnvironment().getProperty("local.server.port");
+        ordersUri = URI.create("http://localhost:" + port + "/api/orders");
+        analyticsUri = URI.create("http://localhost:" + port + "/api/analytics");
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        client.close();
+        context.close();
+    }
+
+    @Benchmark
+    public int createOrder() throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String body = String.format(
+            "{\"productName\":\"Product-%d\",\"quantity\":%d,\"price\":%d.0,\"date\":\"%s\"}",
+            random.nextInt(BenchmarkContext.PRODUCTS), 1 + random.nextInt(5), 5 + random.nextInt(200),
+            LocalDateTime.now().withNano(0));
+        HttpRequest request = HttpRequest.newBuilder(ordersUri)
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(body))
+            .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    @Benchmark
+    public int getAnalytics() throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(analyticsUri).GET().build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -0,0 +1,63 @@
+package com.salesanalytics.benchmark;
+
+import com.salesanalytics.dto.OrderRequest;
+import com.salesanalytics.dto.OrderResponse;
+import com.salesanalytics.service.OrderService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * createOrder() throughput in the synchronous and write-behind ingest modes.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Threads(4)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class OrderIngestBenchmark {
+
+    @Param({"10000"})
+    public int rows;
+
+    @Param({"sync", "journal"})
+    public String mode;
+
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+    private Path journal;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        journal = Files.createTempFile("orders-", ".journal");
+        Files.delete(journal);
+        context = BenchmarkContext.start(BenchmarkContext.scratchCopy(rows),
+            "orders.ingest.mode=" + mode,
+            "orders.journal.path=" + journal.toAbsolutePath());
+        orderService = context.getBean(OrderService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        context.close();
+        Files.deleteIfExists(journal);
+    }
+
+    @Benchmark
+    public OrderResponse createOrder() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return orderService.createOrder(new OrderRequest(
+            "Product-" + random.nextInt(BenchmarkContext.PRODUCTS),
+            1 + random.nextInt(5),
+            5.0 + random.nextInt(200),
+            LocalDateTime.now()
+        ));
+    }
+}
@@ -0,0 +1,41 @@
+package com.salesanalytics.benchmark;
+
+import com.salesanalytics.dto.Recommendation;
+import com.salesanalytics.service.RecommendationService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rule-based recommendations (AI disabled), served from the rule engine's
+ * materialized set.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RecommendationBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private RecommendationService recommendationService;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        context = BenchmarkContext.start(BenchmarkContext.seeded(10_000));
+        recommendationService = context.getBean(RecommendationService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Recommendation> ruleBasedRecommendations() {
+        return recommendationService.getRecommendations();
+    }
+}
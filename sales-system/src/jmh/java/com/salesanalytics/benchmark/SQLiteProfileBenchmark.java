@@ -0,0 +1,69 @@
+package com.salesanalytics.benchmark;
+
+import com.salesanalytics.dto.OrderRequest;
+import com.salesanalytics.dto.OrderResponse;
+import com.salesanalytics.entity.BucketGranularity;
+import com.salesanalytics.service.AnalyticsQueryService;
+import com.salesanalytics.service.OrderService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mixed load against the sqlite profile: ingest threads share the single
+ * writer connection while aggregation threads run range queries on the
+ * reader pool at the same time. Reported per group member, so ingest and
+ * aggregation throughput can be read off separately.
+ */
+@State(Scope.Group)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class SQLiteProfileBenchmark {
+
+    @Param({"100000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+    private AnalyticsQueryService analyticsQueryService;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        context = BenchmarkContext.start(BenchmarkContext.scratchCopy(rows), "orders.ingest.mode=sync");
+        orderService = context.getBean(OrderService.class);
+        analyticsQueryService = context.getBean(AnalyticsQueryService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(2)
+    public OrderResponse ingest() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return orderService.createOrder(new OrderRequest(
+            "Product-" + random.nextInt(BenchmarkContext.PRODUCTS),
+            1 + random.nextInt(5),
+            5.0 + random.nextInt(200),
+            LocalDateTime.now()
+        ));
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(4)
+    public double aggregate() {
+        // A random 90-minute range of the minute series, within its 7-day retention
+        LocalDateTime to = LocalDateTime.now().minusMinutes(ThreadLocalRandom.current().nextInt(6 * 24 * 60));
+        return analyticsQueryService.getRange(to.minusMinutes(90), to, BucketGranularity.MINUTE, null).getTotalRevenue();
+    }
+}
@@ -0,0 +1,85 @@
+package com.salesanalytics.benchmark;
+
+import com.salesanalytics.dto.Analytics;
+import com.salesanalytics.service.AnalyticsQueryService;
+import com.salesanalytics.websocket.SalesWebSocketHandler;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.web.socket.CloseStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time until one analytics_update has reached every session when each send
+ * blocks for a few milliseconds, on the fixed platform-thread send pool
+ * versus one virtual thread per draining session.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SlowClientFanOutBenchmark {
+
+    @Param({"false", "true"})
+    public boolean virtualThreads;
+
+    @Param({"1000"})
+    public int sessions;
+
+    @Param({"5"})
+    public long sendDelayMillis;
+
+    private ConfigurableApplicationContext context;
+    private SalesWebSocketHandler handler;
+    private Analytics analytics;
+    private final List<StubWebSocketSession> stubs = new ArrayList<>();
+    private long expected;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        context = BenchmarkContext.start(BenchmarkContext.seeded(10_000),
+            "spring.threads.virtual.enabled=" + virtualThreads,
+            "websocket.send.queue-limit=1024");
+        BenchmarkContext.requireVirtualThreads(context, virtualThreads);
+        handler = context.getBean(SalesWebSocketHandler.class);
+        analytics = context.getBean(AnalyticsQueryService.class).getAnalytics();
+
+        for (int i = 0; i < sessions; i++) {
+            StubWebSocketSession session = new StubWebSocketSession("bench-" + i, sendDelayMillis);
+            handler.afterConnectionEstablished(session);
+            stubs.add(session);
+        }
+        // The welcome message counts as the first delivery
+        expected = 1;
+        awaitDelivery();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        for (StubWebSocketSession session : stubs) {
+            handler.afterConnectionClosed(session, CloseStatus.NORMAL);
+        }
+        context.close();
+    }
+
+    @Benchmark
+    public void broadcastToSlowClients() throws InterruptedException {
+        // Unchanged snapshots are not re-sent, so move the revenue like a new order would
+        analytics.setTotalRevenue(analytics.getTotalRevenue() + 1);
+        handler.broadcastAnalyticsUpdate(analytics);
+        expected++;
+        awaitDelivery();
+    }
+
+    private void awaitDelivery() throws InterruptedException {
+        for (StubWebSocketSession session : stubs) {
+            while (session.getMessagesSent() < expected) {
+                Thread.sleep(0, 100_000);
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.salesanalytics.benchmark;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketExtension;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.security.Principal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory session that accepts every message and only counts payload bytes,
+ * optionally blocking for a fixed time per send to model a slow client.
+ */
+class StubWebSocketSession implements WebSocketSession {
+
+    private final String id;
+    private final Map<String, Object> attributes = new ConcurrentHashMap<>();
+    private final long sendDelayMillis;
+    private final String acceptedProtocol;
+    private final LongAdder bytesSent = new LongAdder();
+    private final LongAdder messagesSent = new LongAdder();
+    private volatile boolean open = true;
+
+    StubWebSocketSession(String id) {
+        this(id, 0);
+    }
+
+    StubWebSocketSession(String id, long sendDelayMillis) {
+        this(id, sendDelayMillis, null);
+    }
+
+    StubWebSocketSession(String id, long sendDelayMillis, String acceptedProtocol) {
+        this.id = id;
+        this.sendDelayMillis = sendDelayMillis;
+        this.acceptedProtocol = acceptedProtocol;
+    }
+
+    long getBytesSent() {
+        return bytesSent.sum();
+    }
+
+    long getMessagesSent() {
+        return messagesSent.sum();
+    }
+
+    @Override
+    public String getId() { return id; }
+
+    @Override
+    public URI getUri() { return URI.create("ws://localhost/ws"); }
+
+    @Override
+    public HttpHeaders getHandshakeHeaders() { return new HttpHeaders(); }
+
+    @Override
+    public Map<String, Object> getAttributes() { return attributes; }
+
+    @Override
+    public Principal getPrincipal() { return null; }
+
+    @Override
+    public InetSocketAddress getLocalAddress() { return null; }
+
+    @Override
+    public InetSocketAddress getRemoteAddress() { return null; }
+
+    @Override
+    public String getAcceptedProtocol() { return acceptedProtocol; }
+
+    @Override
+    public void setTextMessageSizeLimit(int messageSizeLimit) {}
+
+    @Override
+    public int getTextMessageSizeLimit() { return Integer.MAX_VALUE; }
+
+    @Override
+    public void setBinaryMessageSizeLimit(int messageSizeLimit) {}
+
+    @Override
+    public int getBinaryMessageSizeLimit() { return Integer.MAX_VALUE; }
+
+    @Override
+    public List<WebSocketExtension> getExtensions() { return List.of(); }
+
+    @Override
+    public void sendMessage(WebSocketMessage<?> message) throws IOException {
+        if (sendDelayMillis > 0) {
+            try {
+                Thread.sleep(sendDelayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while sending", e);
+            }
+        }
+        bytesSent.add(message.getPayloadLength());
+        messagesSent.increment();
+    }
+
+    @Override
+    public boolean isOpen() { return open; }
+
+    @Override
+    public void close() { open = false; }
+
+    @Override
+    public void close(CloseStatus status) { open = false; }
+}
@@ -0,0 +1,79 @@
+package com.salesanalytics.benchmark;
+
+import com.salesanalytics.dto.Analytics;
+import com.salesanalytics.service.AnalyticsQueryService;
+import com.salesanalytics.websocket.SalesWebSocketHandler;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost paid by the broadcasting thread for one analytics_update fan-out:
+ * encoding plus enqueueing for every connected session. After the first
+ * invocation the analytics subscribers are in sync and receive
+ * analytics_delta messages. With subscription=analytics:summary the
+ * sessions only take the summary topic. The format parameter is the
+ * subprotocol the sessions negotiate; compare the sales.websocket.payload
+ * summary for bytes per message.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class WebSocketBroadcastBenchmark {
+
+    @Param({"1", "100", "10000"})
+    public int sessions;
+
+    @Param({"default", "analytics:summary"})
+    public String subscription;
+
+    @Param({"json", "smile", "cbor"})
+    public String format;
+
+    private ConfigurableApplicationContext context;
+    private SalesWebSocketHandler handler;
+    private Analytics analytics;
+    private final List<StubWebSocketSession> stubs = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        context = BenchmarkContext.start(BenchmarkContext.seeded(10_000));
+        handler = context.getBean(SalesWebSocketHandler.class);
+        analytics = context.getBean(AnalyticsQueryService.class).getAnalytics();
+
+        for (int i = 0; i < sessions; i++) {
+            StubWebSocketSession session = new StubWebSocketSession("bench-" + i, 0, format);
+            handler.afterConnectionEstablished(session);
+            if (!"default".equals(subscription)) {
+                handler.handleMessage(session, new TextMessage(
+                    "{\"action\":\"unsubscribe\",\"topics\":[\"orders\",\"analytics\",\"recommendations\"]}"));
+                handler.handleMessage(session, new TextMessage(
+                    "{\"action\":\"subscribe\",\"topics\":[\"" + subscription + "\"]}"));
+            }
+            stubs.add(session);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        for (StubWebSocketSession session : stubs) {
+            handler.afterConnectionClosed(session, CloseStatus.NORMAL);
+        }
+        context.close();
+    }
+
+    @Benchmark
+    public void broadcastAnalyticsUpdate() {
+        // Unchanged snapshots are not re-sent, so move the revenue like a new order would
+        analytics.setTotalRevenue(analytics.getTotalRevenue() + 1);
+        handler.broadcastAnalyticsUpdate(analytics);
+    }
+}
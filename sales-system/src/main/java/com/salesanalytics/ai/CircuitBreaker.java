@@ -0,0 +1,145 @@
+package com.salesanalytics.ai;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Consecutive-failure circuit breaker for the LLM integration. Calls that
+ * fail or exceed the latency SLO count as failures; after
+ * {@code failureThreshold} in a row the circuit opens and calls are rejected
+ * for {@code openDuration}. After that a single probe is let through
+ * (half-open), and its outcome closes or re-opens the circuit.
+ *
+ * Publishes {@code ai.circuit.state} (1 for the current state, 0 otherwise),
+ * {@code ai.circuit.transitions} and {@code ai.circuit.rejected}.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long slowCallNanos;
+    private final long openNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<State, Counter> transitions = new EnumMap<>(State.class);
+    private final Counter rejected;
+
+    private volatile State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean probeInFlight;
+
+    private CircuitBreaker(String name, int failureThreshold, Duration slowCallThreshold,
+                           Duration openDuration, MeterRegistry registry) {
+        this.failureThreshold = failureThreshold;
+        this.slowCallNanos = slowCallThreshold.toNanos();
+        this.openNanos = openDuration.toNanos();
+
+        for (State candidate : State.values()) {
+            transitions.put(candidate, Counter.builder("ai.circuit.transitions")
+                .tag("name", name)
+                .tag("to", candidate.name().toLowerCase())
+                .register(registry));
+        }
+        this.rejected = Counter.builder("ai.circuit.rejected").tag("name", name).register(registry);
+    }
+
+    /** Creates a closed breaker; the state gauges are registered once it is fully constructed. */
+    public static CircuitBreaker create(String name, int failureThreshold, Duration slowCallThreshold,
+                                        Duration openDuration, MeterRegistry registry) {
+        CircuitBreaker breaker = new CircuitBreaker(name, failureThreshold, slowCallThreshold, openDuration, registry);
+        for (State candidate : State.values()) {
+            Gauge.builder("ai.circuit.state", breaker, b -> b.state == candidate ? 1 : 0)
+                .tag("name", name)
+                .tag("state", candidate.name().toLowerCase())
+                .register(registry);
+        }
+        return breaker;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    /** Whether a call would currently be let through, without claiming the half-open probe. */
+    public boolean isCallPermitted() {
+        lock.lock();
+        try {
+            return switch (state) {
+                case CLOSED -> true;
+                case OPEN -> System.nanoTime() - openedAt >= openNanos;
+                case HALF_OPEN -> !probeInFlight;
+            };
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Claims permission for one call. Every successful acquire must be
+     * followed by {@link #onSuccess(long)} or {@link #onFailure()}.
+     */
+    public boolean tryAcquire() {
+        lock.lock();
+        try {
+            if (state == State.OPEN && System.nanoTime() - openedAt >= openNanos) {
+                transitionTo(State.HALF_OPEN);
+            }
+            boolean permitted = switch (state) {
+                case CLOSED -> true;
+                case OPEN -> false;
+                case HALF_OPEN -> !probeInFlight;
+            };
+            if (!permitted) {
+                rejected.increment();
+            } else if (state == State.HALF_OPEN) {
+                probeInFlight = true;
+            }
+            return permitted;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void onSuccess(long elapsedNanos) {
+        if (elapsedNanos > slowCallNanos) {
+            onFailure();
+            return;
+        }
+        lock.lock();
+        try {
+            consecutiveFailures = 0;
+            probeInFlight = false;
+            if (state != State.CLOSED) {
+                transitionTo(State.CLOSED);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void onFailure() {
+        lock.lock();
+        try {
+            consecutiveFailures++;
+            probeInFlight = false;
+            if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+                openedAt = System.nanoTime();
+                transitionTo(State.OPEN);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void transitionTo(State next) {
+        state = next;
+        transitions.get(next).increment();
+    }
+}
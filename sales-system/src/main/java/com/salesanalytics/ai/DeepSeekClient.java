@@ -0,0 +1,195 @@
+package com.salesanalytics.ai;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Non-blocking client for the DeepSeek chat completions API. A single shared
+ * {@link HttpClient} keeps a pool of persistent connections (multiplexed over
+ * HTTP/2 where the provider supports it), and no caller thread is held while
+ * a completion is outstanding; responses are handled on the recommendation
+ * executor. {@link #stream} requests server-sent events and hands each content
+ * delta to the caller as it arrives.
+ */
+@Component
+public class DeepSeekClient {
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final URI apiUri;
+    private final String apiKey;
+    private final String modelName;
+    private final Duration timeout;
+
+    public DeepSeekClient(
+            ObjectMapper objectMapper,
+            @Qualifier("recommendationExecutor") Executor executor,
+            @Value("${deepseek.api.key}") String apiKey,
+            @Value("${deepseek.api.url:https://api.deepseek.com/v1/chat/completions}") String apiUrl,
+            @Value("${deepseek.model:deepseek-chat}") String modelName,
+            @Value("${deepseek.timeout.seconds:30}") int timeoutSeconds) {
+        this.objectMapper = objectMapper;
+        this.apiUri = URI.create(apiUrl);
+        this.apiKey = apiKey;
+        this.modelName = modelName;
+        this.timeout = Duration.ofSeconds(timeoutSeconds);
+        this.httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .connectTimeout(timeout)
+            .executor(executor)
+            .build();
+    }
+
+    /**
+     * Sends the prompt and completes with the raw response body, or exceptionally
+     * on a non-2xx status. The request timeout only covers the response headers,
+     * so the whole exchange is bounded here and cancelled once it runs over.
+     */
+    public CompletableFuture<String> complete(String prompt) {
+        CompletableFuture<HttpResponse<String>> exchange =
+            httpClient.sendAsync(createRequest(prompt, false), HttpResponse.BodyHandlers.ofString());
+        return exchange
+            .thenApply(response -> {
+                validateStatus(response);
+                return response.body();
+            })
+            .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+            .whenComplete((body, error) -> {
+                if (error != null) {
+                    // Aborts the body read still in progress on the connection
+                    exchange.cancel(true);
+                }
+            });
+    }
+
+    /**
+     * Streams the completion, passing every content delta to {@code onContent}
+     * on the client's executor. Completes once the stream has ended; the whole
+     * stream is bounded by the configured timeout.
+     */
+    public CompletableFuture<Void> stream(String prompt, Consumer<String> onContent) {
+        EventStreamSubscriber subscriber = new EventStreamSubscriber(objectMapper, onContent);
+        return httpClient.sendAsync(createRequest(prompt, true), HttpResponse.BodyHandlers.fromLineSubscriber(subscriber))
+            .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+            .whenComplete((response, error) -> {
+                if (error != null) {
+                    subscriber.cancel();
+                }
+            })
+            .thenAccept(response -> {
+                validateStatus(response);
+                if (subscriber.failure != null) {
+                    throw subscriber.failure;
+                }
+            });
+    }
+
+    private HttpRequest createRequest(String prompt, boolean stream) {
+        return HttpRequest.newBuilder(apiUri)
+            .timeout(timeout)
+            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+            .header(HttpHeaders.ACCEPT, stream ? MediaType.TEXT_EVENT_STREAM_VALUE : MediaType.APPLICATION_JSON_VALUE)
+            .header(HttpHeaders.AUTHORIZATION, "Bearer " + apiKey)
+            .POST(HttpRequest.BodyPublishers.ofByteArray(createRequestBody(prompt, stream)))
+            .build();
+    }
+
+    private static void validateStatus(HttpResponse<?> response) {
+        if (response.statusCode() / 100 != 2) {
+            throw new RuntimeException("AI API request failed: " + response.statusCode());
+        }
+    }
+
+    private byte[] createRequestBody(String prompt, boolean stream) {
+        Map<String, Object> requestBody = Map.of(
+            "model", modelName,
+            "messages", List.of(Map.of("role", "user", "content", prompt)),
+            "temperature", 0.7,
+            "max_tokens", 1000,
+            "stream", stream
+        );
+        try {
+            return objectMapper.writeValueAsBytes(requestBody);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to encode AI request", e);
+        }
+    }
+
+    // Reads "data: {...}" lines of the event stream and forwards choices[0].delta.content
+    private static class EventStreamSubscriber implements Flow.Subscriber<String> {
+
+        private static final String DATA_PREFIX = "data:";
+        private static final String DONE = "[DONE]";
+
+        private final ObjectMapper objectMapper;
+        private final Consumer<String> onContent;
+        private volatile Flow.Subscription subscription;
+        private volatile RuntimeException failure;
+
+        EventStreamSubscriber(ObjectMapper objectMapper, Consumer<String> onContent) {
+            this.objectMapper = objectMapper;
+            this.onContent = onContent;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(String line) {
+            if (failure != null || !line.startsWith(DATA_PREFIX)) {
+                return;
+            }
+            String data = line.substring(DATA_PREFIX.length()).trim();
+            if (data.isEmpty() || DONE.equals(data)) {
+                return;
+            }
+            try {
+                JsonNode content = objectMapper.readTree(data).at("/choices/0/delta/content");
+                if (content.isTextual()) {
+                    onContent.accept(content.textValue());
+                }
+            } catch (JsonProcessingException e) {
+                failure = new IllegalStateException("Malformed AI stream event", e);
+            } catch (RuntimeException e) {
+                failure = e;
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+        }
+
+        @Override
+        public void onComplete() {
+        }
+
+        void cancel() {
+            Flow.Subscription current = subscription;
+            if (current != null) {
+                current.cancel();
+            }
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.salesanalytics.ai;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.salesanalytics.dto.Recommendation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Incremental parser for the JSON array of recommendations produced by the
+ * model. Content fragments are fed to Jackson's non-blocking parser as they
+ * arrive; each element object is buffered token by token and handed to the
+ * listener as soon as it closes, so the first recommendation is available
+ * long before the completion ends. Anything before the opening bracket
+ * (such as a markdown fence) and after the closing bracket is ignored.
+ */
+public class RecommendationStreamParser {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecommendationStreamParser.class);
+
+    private final ObjectMapper objectMapper;
+    private final Consumer<Recommendation> listener;
+    private final JsonParser parser;
+    private final ByteArrayFeeder feeder;
+    private final StringBuilder content = new StringBuilder();
+    private final List<Recommendation> recommendations = new ArrayList<>();
+
+    private boolean started;
+    private boolean finished;
+    private int level;
+    private TokenBuffer current;
+
+    public RecommendationStreamParser(ObjectMapper objectMapper, Consumer<Recommendation> listener) {
+        this.objectMapper = objectMapper;
+        this.listener = listener;
+        try {
+            this.parser = objectMapper.getFactory().createNonBlockingByteArrayParser();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+    }
+
+    public void feed(String fragment) {
+        content.append(fragment);
+        if (finished) {
+            return;
+        }
+        if (!started) {
+            int start = fragment.indexOf('[');
+            if (start < 0) {
+                return;
+            }
+            started = true;
+            fragment = fragment.substring(start);
+        }
+
+        byte[] bytes = fragment.getBytes(StandardCharsets.UTF_8);
+        try {
+            feeder.feedInput(bytes, 0, bytes.length);
+            drain();
+        } catch (IOException e) {
+            finished = true;
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Recommendations parsed so far, in completion order. */
+    public List<Recommendation> getRecommendations() {
+        return recommendations;
+    }
+
+    /** The raw content received so far. */
+    public String getContent() {
+        return content.toString();
+    }
+
+    private void drain() throws IOException {
+        JsonToken token;
+        while (!finished && (token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+            if (token.isStructStart()) {
+                level++;
+                if (level == 2 && token == JsonToken.START_OBJECT) {
+                    current = new TokenBuffer(parser, null);
+                }
+            }
+            if (current != null) {
+                current.copyCurrentEvent(parser);
+            }
+            if (token.isStructEnd()) {
+                level--;
+                if (level == 1 && current != null) {
+                    emit(current);
+                    current = null;
+                } else if (level == 0) {
+                    finished = true;
+                }
+            }
+        }
+    }
+
+    private void emit(TokenBuffer buffer) {
+        try (JsonParser element = buffer.asParser(objectMapper)) {
+            Recommendation recommendation = objectMapper.readValue(element, Recommendation.class);
+            recommendations.add(recommendation);
+            listener.accept(recommendation);
+        } catch (IOException e) {
+            logger.warn("Skipping unreadable recommendation: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package com.salesanalytics.analytics;
+
+import com.salesanalytics.dto.Analytics;
+import com.salesanalytics.dto.OrderResponse;
+import com.salesanalytics.dto.RevenueWindow;
+import com.salesanalytics.dto.TopProduct;
+import com.salesanalytics.entity.Order;
+import com.salesanalytics.entity.ProductTotal;
+import com.salesanalytics.repository.OrderRepository;
+import com.salesanalytics.rollup.RollupService;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory read model of the sales aggregates. The state is loaded from
+ * the database at startup (in a read-only transaction) and then updated
+ * incrementally by {@link AnalyticsProjector} for every committed order, so
+ * building an {@link Analytics} snapshot never touches the orders table.
+ *
+ * Recording and snapshots share the read side of a lock; {@link #reload()}
+ * takes the write side so a rebuild never interleaves with updates.
+ */
+@Component
+public class AnalyticsEngine implements AnalyticsReadModel {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnalyticsEngine.class);
+
+    private static final int TOP_PRODUCTS_LIMIT = 5;
+    private static final int RECENT_ORDERS_LIMIT = 10;
+    private static final int MINUTE = 60;
+
+    private final OrderRepository orderRepository;
+    private final RollupService rollupService;
+    private final TransactionTemplate readOnlyTemplate;
+
+    private final DoubleAdder totalRevenue = new DoubleAdder();
+    private final LongAdder totalOrders = new LongAdder();
+    private final TopKTracker topProducts;
+    private final RecentOrdersBuffer recentOrders = new RecentOrdersBuffer(RECENT_ORDERS_LIMIT);
+    private final SlidingWindowCounter window;
+    private final int[] windowSeconds;
+    private final int[] offsets;
+    private final ReentrantReadWriteLock stateLock = new ReentrantReadWriteLock();
+
+    public AnalyticsEngine(
+            OrderRepository orderRepository,
+            RollupService rollupService,
+            TopKTracker topProducts,
+            PlatformTransactionManager transactionManager,
+            @Value("${analytics.windows:1m,5m,15m,1h}") List<Duration> windows) {
+        this.orderRepository = orderRepository;
+        this.rollupService = rollupService;
+        this.topProducts = topProducts;
+        this.readOnlyTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTemplate.setReadOnly(true);
+
+        TreeSet<Integer> seconds = new TreeSet<>();
+        seconds.add(MINUTE);
+        windows.forEach(duration -> seconds.add((int) Math.max(1, duration.toSeconds())));
+        this.windowSeconds = seconds.stream().mapToInt(Integer::intValue).toArray();
+
+        // Each window needs its own span plus the preceding span of equal length
+        TreeSet<Integer> bounds = new TreeSet<>(seconds);
+        seconds.forEach(span -> bounds.add(span * 2));
+        this.offsets = bounds.stream().mapToInt(Integer::intValue).toArray();
+        this.window = new SlidingWindowCounter(bounds.last());
+    }
+
+    @PostConstruct
+    public void load() {
+        stateLock.writeLock().lock();
+        try {
+            readOnlyTemplate.executeWithoutResult(status -> loadState());
+        } finally {
+            stateLock.writeLock().unlock();
+        }
+    }
+
+    private void loadState() {
+        long started = System.nanoTime();
+
+        for (ProductTotal product : rollupService.getProductTotals()) {
+            topProducts.add(product.getProductName(), product.getRevenue(), product.getQuantity());
+            totalRevenue.add(product.getRevenue());
+            totalOrders.add(product.getOrderCount());
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        long nowSecond = toEpochSecond(now);
+        for (Object[] row : orderRepository.getRevenueTimelineSince(now.minusSeconds(window.getSize()))) {
+            window.record(toEpochSecond((LocalDateTime) row[0]), nowSecond, ((Number) row[1]).doubleValue());
+        }
+
+        List<Order> latest = orderRepository.findRecentOrders(PageRequest.of(0, RECENT_ORDERS_LIMIT));
+        for (int i = latest.size() - 1; i >= 0; i--) {
+            recentOrders.add(convertToResponse(latest.get(i)));
+        }
+
+        logger.info("Loaded analytics state for {} orders and {} products in {} ms",
+            totalOrders.sum(), topProducts.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * Discards the in-memory state and loads it again from the database,
+     * used to catch up after bulk imports or when the projection has drifted
+     * from the orders table.
+     */
+    @Override
+    public void reload() {
+        // Product totals are loaded from the rollups, so apply committed deltas first
+        rollupService.flush();
+
+        stateLock.writeLock().lock();
+        try {
+            totalRevenue.reset();
+            totalOrders.reset();
+            topProducts.clear();
+            window.clear();
+            recentOrders.clear();
+            readOnlyTemplate.executeWithoutResult(status -> loadState());
+        } finally {
+            stateLock.writeLock().unlock();
+        }
+    }
+
+    public void record(Order order) {
+        stateLock.readLock().lock();
+        try {
+            apply(order);
+        } finally {
+            stateLock.readLock().unlock();
+        }
+    }
+
+    private void apply(Order order) {
+        double total = order.getTotal();
+
+        totalRevenue.add(total);
+        totalOrders.increment();
+
+        topProducts.add(order.getProductName(), total, order.getQuantity());
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime createdAt = order.getCreatedAt() != null ? order.getCreatedAt() : now;
+        window.record(toEpochSecond(createdAt), toEpochSecond(now), total);
+
+        recentOrders.add(convertToResponse(order));
+    }
+
+    @Override
+    public Analytics snapshot() {
+        stateLock.readLock().lock();
+        try {
+            return buildSnapshot();
+        } finally {
+            stateLock.readLock().unlock();
+        }
+    }
+
+    private Analytics buildSnapshot() {
+        double revenue = totalRevenue.sum();
+        SlidingWindowCounter.Totals[] totals = window.cumulative(toEpochSecond(LocalDateTime.now()), offsets);
+
+        List<RevenueWindow> windows = new ArrayList<>(windowSeconds.length);
+        RevenueWindow lastMinute = null;
+        for (int span : windowSeconds) {
+            RevenueWindow stats = toRevenueWindow(span, totals);
+            windows.add(stats);
+            if (span == MINUTE) {
+                lastMinute = stats;
+            }
+        }
+
+        return new Analytics(
+            revenue,
+            (int) totalOrders.sum(),
+            topProducts.top(TOP_PRODUCTS_LIMIT, revenue),
+            recentOrders.snapshot(),
+            lastMinute.getRevenueChange(),
+            lastMinute.getOrders(),
+            windows
+        );
+    }
+
+    private RevenueWindow toRevenueWindow(int span, SlidingWindowCounter.Totals[] totals) {
+        SlidingWindowCounter.Totals current = totals[Arrays.binarySearch(offsets, span)];
+        SlidingWindowCounter.Totals previous = totals[Arrays.binarySearch(offsets, span * 2)].minus(current);
+
+        // Calculate revenue change (this window vs the window right before it)
+        double revenueChange = 0.0;
+        if (previous.revenue() > 0) {
+            revenueChange = ((current.revenue() - previous.revenue()) / previous.revenue()) * 100;
+        } else if (current.revenue() > 0) {
+            revenueChange = 100.0;
+        }
+
+        return new RevenueWindow(
+            formatSpan(span),
+            current.revenue(),
+            (int) current.count(),
+            previous.revenue(),
+            (int) previous.count(),
+            revenueChange
+        );
+    }
+
+    private static String formatSpan(int seconds) {
+        if (seconds % 3600 == 0) {
+            return (seconds / 3600) + "h";
+        }
+        if (seconds % MINUTE == 0) {
+            return (seconds / MINUTE) + "m";
+        }
+        return seconds + "s";
+    }
+
+    public int getTrackedProductCount() {
+        return topProducts.size();
+    }
+
+    @Override
+    public List<TopProduct> getTopProducts(int limit) {
+        return topProducts.top(limit, totalRevenue.sum());
+    }
+
+    @Override
+    public List<OrderResponse> getRecentOrders() {
+        return recentOrders.snapshot();
+    }
+
+    @Override
+    public long getOrderCount() {
+        return totalOrders.sum();
+    }
+
+    private OrderResponse convertToResponse(Order order) {
+        return new OrderResponse(
+            order.getId(),
+            order.getProductName(),
+            order.getQuantity(),
+            order.getPrice(),
+            order.getDate(),
+            order.getCreatedAt()
+        );
+    }
+
+    private static long toEpochSecond(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toEpochSecond();
+    }
+}
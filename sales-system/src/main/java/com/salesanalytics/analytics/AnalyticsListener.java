@@ -0,0 +1,12 @@
+package com.salesanalytics.analytics;
+
+import com.salesanalytics.dto.Analytics;
+
+/**
+ * Receives the coalesced analytics snapshot produced on each broadcast tick
+ * in which orders were recorded.
+ */
+public interface AnalyticsListener {
+
+    void analyticsUpdated(Analytics analytics);
+}
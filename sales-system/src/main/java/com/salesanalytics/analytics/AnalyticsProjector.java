@@ -0,0 +1,142 @@
+package com.salesanalytics.analytics;
+
+import com.salesanalytics.event.OrdersImportedEvent;
+import com.salesanalytics.event.OrdersPlacedEvent;
+import com.salesanalytics.entity.Order;
+import com.salesanalytics.ingest.JournalFlusher;
+import com.salesanalytics.ingest.OrderJournal;
+import com.salesanalytics.repository.OrderRepository;
+import com.salesanalytics.websocket.AnalyticsBroadcaster;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps the {@link AnalyticsEngine} read model in step with the write side.
+ * Order events are applied once their transaction has committed and then
+ * queued for the next WebSocket broadcast; imports trigger a rebuild from
+ * the orders table.
+ *
+ * The rebuild runs on its own executor: after commit the import's
+ * transaction is still bound to (and its connection held by) the calling
+ * thread, so flushing the rollups there would join a finished transaction.
+ * Imports arriving while a rebuild is queued share it.
+ *
+ * The periodic catch-up compares the projected order count with the orders
+ * table and rebuilds when they disagree on two consecutive checks (a single
+ * mismatch may just be an order between commit and projection). It is
+ * skipped while the journal holds orders that are projected but not yet
+ * written.
+ *
+ * In write-behind mode a rebuild pauses the journal flusher, reloads from
+ * the database and then replays the orders the journal still holds, which
+ * are acknowledged and projected but not in the database yet.
+ */
+@Component
+public class AnalyticsProjector {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnalyticsProjector.class);
+
+    private final AnalyticsEngine analyticsEngine;
+    private final AnalyticsBroadcaster broadcaster;
+    private final OrderRepository orderRepository;
+    private final ObjectProvider<OrderJournal> journal;
+    private final ObjectProvider<JournalFlusher> journalFlusher;
+    private final TransactionTemplate readOnlyTemplate;
+    private final TaskExecutor rebuildExecutor;
+
+    private final AtomicBoolean rebuildQueued = new AtomicBoolean();
+    private final ReentrantLock catchUpLock = new ReentrantLock();
+    private long lastDrift;
+
+    public AnalyticsProjector(
+            AnalyticsEngine analyticsEngine,
+            AnalyticsBroadcaster broadcaster,
+            OrderRepository orderRepository,
+            ObjectProvider<OrderJournal> journal,
+            ObjectProvider<JournalFlusher> journalFlusher,
+            PlatformTransactionManager transactionManager,
+            @Qualifier("analyticsRebuildExecutor") TaskExecutor rebuildExecutor) {
+        this.analyticsEngine = analyticsEngine;
+        this.broadcaster = broadcaster;
+        this.orderRepository = orderRepository;
+        this.journal = journal;
+        this.journalFlusher = journalFlusher;
+        this.readOnlyTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTemplate.setReadOnly(true);
+        this.rebuildExecutor = rebuildExecutor;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void ordersPlaced(OrdersPlacedEvent event) {
+        event.orders().forEach(analyticsEngine::record);
+        broadcaster.ordersCreated(event.responses());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void ordersImported(OrdersImportedEvent event) {
+        logger.info("Rebuilding analytics read model after importing {} orders", event.count());
+        if (rebuildQueued.compareAndSet(false, true)) {
+            rebuildExecutor.execute(() -> {
+                rebuildQueued.set(false);
+                rebuild();
+            });
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${analytics.catch-up.interval-ms:60000}",
+               initialDelayString = "${analytics.catch-up.interval-ms:60000}")
+    public void catchUp() {
+        OrderJournal orderJournal = journal.getIfAvailable();
+        if (orderJournal != null && orderJournal.getPendingBytes() > 0) {
+            return;
+        }
+
+        catchUpLock.lock();
+        try {
+            Integer stored = readOnlyTemplate.execute(status -> orderRepository.getTotalOrderCount());
+            long drift = (stored == null ? 0 : stored) - analyticsEngine.getOrderCount();
+            if (drift == 0) {
+                lastDrift = 0;
+                return;
+            }
+            if (drift != lastDrift) {
+                lastDrift = drift;
+                return;
+            }
+
+            logger.warn("Analytics read model is {} orders off the orders table, rebuilding", drift);
+            lastDrift = 0;
+            rebuild();
+        } finally {
+            catchUpLock.unlock();
+        }
+    }
+
+    private void rebuild() {
+        OrderJournal orderJournal = journal.getIfAvailable();
+        JournalFlusher flusher = journalFlusher.getIfAvailable();
+        if (orderJournal == null || flusher == null) {
+            analyticsEngine.reload();
+        } else {
+            flusher.runPaused(() -> {
+                // Orders journaled from here on are projected as usual once the reload lets them through
+                List<Order> unflushed = orderJournal.read(Integer.MAX_VALUE).orders();
+                analyticsEngine.reload();
+                unflushed.forEach(analyticsEngine::record);
+            });
+        }
+        broadcaster.analyticsChanged();
+    }
+}
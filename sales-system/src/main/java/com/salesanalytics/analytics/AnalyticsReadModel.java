@@ -0,0 +1,27 @@
+package com.salesanalytics.analytics;
+
+import com.salesanalytics.dto.Analytics;
+import com.salesanalytics.dto.OrderResponse;
+import com.salesanalytics.dto.TopProduct;
+
+import java.util.List;
+
+/**
+ * Query side of the sales data. Implementations serve analytics and recent
+ * orders from a projection kept up to date by the order events, never from
+ * the primary database.
+ */
+public interface AnalyticsReadModel {
+
+    Analytics snapshot();
+
+    List<TopProduct> getTopProducts(int limit);
+
+    /** Newest first. */
+    List<OrderResponse> getRecentOrders();
+
+    long getOrderCount();
+
+    /** Discards the projection and rebuilds it from the orders table. */
+    void reload();
+}
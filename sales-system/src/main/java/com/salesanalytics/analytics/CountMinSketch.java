@@ -0,0 +1,62 @@
+package com.salesanalytics.analytics;
+
+import java.util.Arrays;
+
+/**
+ * Count-Min Sketch over string keys. Estimates never undercount; with
+ * probability 1 - e^-depth they overcount by at most (e / width) * total.
+ * Not thread-safe; callers synchronize.
+ */
+public class CountMinSketch {
+
+    private final int width;
+    private final int depth;
+    private final long[][] table;
+    private long total;
+
+    public CountMinSketch(int width, int depth) {
+        this.width = width;
+        this.depth = depth;
+        this.table = new long[depth][width];
+    }
+
+    public void add(String key, long count) {
+        int h1 = key.hashCode();
+        int h2 = mix(h1);
+        for (int row = 0; row < depth; row++) {
+            table[row][Math.floorMod(h1 + row * h2, width)] += count;
+        }
+        total += count;
+    }
+
+    public long estimate(String key) {
+        int h1 = key.hashCode();
+        int h2 = mix(h1);
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            min = Math.min(min, table[row][Math.floorMod(h1 + row * h2, width)]);
+        }
+        return min;
+    }
+
+    /** Upper bound on the overcount of any single estimate. */
+    public long errorBound() {
+        return (long) Math.ceil(Math.E / width * total);
+    }
+
+    public void clear() {
+        for (long[] row : table) {
+            Arrays.fill(row, 0L);
+        }
+        total = 0;
+    }
+
+    // Second, independent hash derived from the first (Kirsch-Mitzenmacher double hashing)
+    private static int mix(int hash) {
+        int h = hash * 0x9E3779B9;
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        return h | 1;
+    }
+}
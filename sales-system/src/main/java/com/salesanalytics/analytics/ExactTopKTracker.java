@@ -0,0 +1,138 @@
+package com.salesanalytics.analytics;
+
+import com.salesanalytics.dto.TopProduct;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Exact per-product totals. Product names are interned to dense int ids so
+ * totals live in primitive arrays, and top-K is a bounded min-heap of ids:
+ * O(P log k) per query without boxing or sorting the whole catalog.
+ */
+public class ExactTopKTracker implements TopKTracker {
+
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final List<String> names = new ArrayList<>();
+    private double[] revenue = new double[64];
+    private long[] quantity = new long[64];
+    private final ReentrantLock lock = new ReentrantLock();
+
+    @Override
+    public void add(String productName, double amount, long units) {
+        lock.lock();
+        try {
+            int id = ids.computeIfAbsent(productName, this::register);
+            revenue[id] += amount;
+            quantity[id] += units;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<TopProduct> top(int k, double totalRevenue) {
+        double finalTotalRevenue = totalRevenue > 0 ? totalRevenue : 1.0;
+        lock.lock();
+        try {
+            int[] heap = new int[Math.min(k, names.size())];
+            int heapSize = 0;
+            for (int id = 0; id < names.size(); id++) {
+                if (heapSize < heap.length) {
+                    heap[heapSize++] = id;
+                    siftUp(heap, heapSize - 1);
+                } else if (heapSize > 0 && revenue[id] > revenue[heap[0]]) {
+                    heap[0] = id;
+                    siftDown(heap, heapSize);
+                }
+            }
+
+            // Drain the min-heap from the back so the result is highest revenue first
+            TopProduct[] result = new TopProduct[heapSize];
+            for (int i = heapSize - 1; i >= 0; i--) {
+                int id = heap[0];
+                result[i] = new TopProduct(names.get(id), revenue[id], (int) quantity[id],
+                    (revenue[id] / finalTotalRevenue) * 100);
+                heap[0] = heap[i];
+                siftDown(heap, i);
+            }
+            return Arrays.asList(result);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.lock();
+        try {
+            return names.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.lock();
+        try {
+            ids.clear();
+            names.clear();
+            Arrays.fill(revenue, 0.0);
+            Arrays.fill(quantity, 0L);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int register(String productName) {
+        int id = names.size();
+        names.add(productName);
+        if (id == revenue.length) {
+            revenue = Arrays.copyOf(revenue, id * 2);
+            quantity = Arrays.copyOf(quantity, id * 2);
+        }
+        return id;
+    }
+
+    private void siftUp(int[] heap, int index) {
+        while (index > 0) {
+            int parent = (index - 1) / 2;
+            if (revenue[heap[index]] >= revenue[heap[parent]]) {
+                return;
+            }
+            swap(heap, index, parent);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int[] heap, int size) {
+        int index = 0;
+        while (true) {
+            int smallest = index;
+            int left = 2 * index + 1;
+            int right = left + 1;
+            if (left < size && revenue[heap[left]] < revenue[heap[smallest]]) {
+                smallest = left;
+            }
+            if (right < size && revenue[heap[right]] < revenue[heap[smallest]]) {
+                smallest = right;
+            }
+            if (smallest == index) {
+                return;
+            }
+            swap(heap, index, smallest);
+            index = smallest;
+        }
+    }
+
+    private static void swap(int[] heap, int a, int b) {
+        int tmp = heap[a];
+        heap[a] = heap[b];
+        heap[b] = tmp;
+    }
+}
@@ -0,0 +1,53 @@
+package com.salesanalytics.analytics;
+
+import com.salesanalytics.dto.OrderResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Lock-free, fixed-size ring of the most recent orders. Writers claim a
+ * sequence number and publish into its slot; readers walk backwards from
+ * the latest claimed sequence and skip slots that have not been published
+ * yet or were already overwritten by a newer lap.
+ */
+public class RecentOrdersBuffer {
+
+    private final int capacity;
+    private final AtomicReferenceArray<Entry> slots;
+    private final AtomicLong sequence = new AtomicLong();
+
+    public RecentOrdersBuffer(int capacity) {
+        this.capacity = capacity;
+        this.slots = new AtomicReferenceArray<>(capacity);
+    }
+
+    public void add(OrderResponse order) {
+        long seq = sequence.getAndIncrement();
+        slots.set((int) (seq % capacity), new Entry(seq, order));
+    }
+
+    public void clear() {
+        for (int i = 0; i < capacity; i++) {
+            slots.set(i, null);
+        }
+    }
+
+    /** Newest first. */
+    public List<OrderResponse> snapshot() {
+        long head = sequence.get();
+        long tail = Math.max(0, head - capacity);
+        List<OrderResponse> result = new ArrayList<>(capacity);
+        for (long seq = head - 1; seq >= tail; seq--) {
+            Entry entry = slots.get((int) (seq % capacity));
+            if (entry != null && entry.seq == seq) {
+                result.add(entry.order);
+            }
+        }
+        return result;
+    }
+
+    private record Entry(long seq, OrderResponse order) {}
+}
@@ -0,0 +1,103 @@
+package com.salesanalytics.analytics;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed-size ring of per-second revenue and order-count buckets.
+ * Each slot is stamped with the epoch second it belongs to, so stale
+ * slots are recycled lazily on write and ignored on read.
+ */
+public class SlidingWindowCounter {
+
+    private final int size;
+    private final long[] stamps;
+    private final double[] revenue;
+    private final long[] counts;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public SlidingWindowCounter(int seconds) {
+        this.size = seconds;
+        this.stamps = new long[seconds];
+        this.revenue = new double[seconds];
+        this.counts = new long[seconds];
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Adds an order to its second. Seconds that have already left the ring
+     * as of {@code nowSecond} are ignored, so a late order cannot recycle a
+     * slot that holds a current second.
+     */
+    public void record(long epochSecond, long nowSecond, double amount) {
+        if (epochSecond <= nowSecond - size) {
+            return;
+        }
+        int slot = (int) Math.floorMod(epochSecond, (long) size);
+        lock.lock();
+        try {
+            if (stamps[slot] != epochSecond) {
+                stamps[slot] = epochSecond;
+                revenue[slot] = 0.0;
+                counts[slot] = 0;
+            }
+            revenue[slot] += amount;
+            counts[slot]++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void clear() {
+        lock.lock();
+        try {
+            Arrays.fill(stamps, 0L);
+            Arrays.fill(revenue, 0.0);
+            Arrays.fill(counts, 0L);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Cumulative totals for the ranges (nowSecond - offset, nowSecond], one
+     * per offset, computed in a single backward pass over the ring. Offsets
+     * must be ascending and no larger than the ring size.
+     */
+    public Totals[] cumulative(long nowSecond, int... offsets) {
+        Totals[] result = new Totals[offsets.length];
+        double revenueSum = 0.0;
+        long countSum = 0;
+        int next = 0;
+        lock.lock();
+        try {
+            for (int i = 0; next < offsets.length && i < size; i++) {
+                long second = nowSecond - i;
+                int slot = (int) Math.floorMod(second, (long) size);
+                if (stamps[slot] == second) {
+                    revenueSum += revenue[slot];
+                    countSum += counts[slot];
+                }
+                while (next < offsets.length && offsets[next] == i + 1) {
+                    result[next++] = new Totals(revenueSum, countSum);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        while (next < offsets.length) {
+            result[next++] = new Totals(revenueSum, countSum);
+        }
+        return result;
+    }
+
+    public record Totals(double revenue, long count) {
+
+        public Totals minus(Totals other) {
+            return new Totals(revenue - other.revenue, count - other.count);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.salesanalytics.analytics;
+
+import com.salesanalytics.dto.TopProduct;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Approximate top-K with bounded memory. Revenue is tracked with the
+ * weighted Space-Saving algorithm over a fixed number of counters kept in an
+ * indexed min-heap; quantities come from a Count-Min Sketch. Each reported
+ * product carries its error bounds: true revenue lies in
+ * [totalSales - salesError, totalSales] and true quantity in
+ * [quantity - quantityError, quantity].
+ */
+public class SpaceSavingTopKTracker implements TopKTracker {
+
+    private final int capacity;
+    private final Map<String, Counter> monitored;
+    private final Counter[] heap;
+    private final CountMinSketch quantities;
+    private final ReentrantLock lock = new ReentrantLock();
+    private int size;
+
+    public SpaceSavingTopKTracker(int capacity, int sketchWidth, int sketchDepth) {
+        this.capacity = capacity;
+        this.monitored = new HashMap<>(capacity * 2);
+        this.heap = new Counter[capacity];
+        this.quantities = new CountMinSketch(sketchWidth, sketchDepth);
+    }
+
+    @Override
+    public void add(String productName, double revenue, long quantity) {
+        lock.lock();
+        try {
+            quantities.add(productName, quantity);
+
+            Counter counter = monitored.get(productName);
+            if (counter != null) {
+                counter.count += revenue;
+                siftDown(counter.index);
+            } else if (size < capacity) {
+                counter = new Counter(productName, revenue, 0.0);
+                counter.index = size;
+                heap[size++] = counter;
+                monitored.put(productName, counter);
+                siftUp(counter.index);
+            } else {
+                // Evict the smallest counter; the newcomer inherits its count as error
+                counter = heap[0];
+                monitored.remove(counter.name);
+                counter.name = productName;
+                counter.error = counter.count;
+                counter.count += revenue;
+                monitored.put(productName, counter);
+                siftDown(0);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<TopProduct> top(int k, double totalRevenue) {
+        double finalTotalRevenue = totalRevenue > 0 ? totalRevenue : 1.0;
+        lock.lock();
+        try {
+            Counter[] counters = Arrays.copyOf(heap, size);
+            Arrays.sort(counters, Comparator.comparingDouble((Counter c) -> c.count).reversed());
+
+            long quantityError = quantities.errorBound();
+            List<TopProduct> result = new ArrayList<>(Math.min(k, counters.length));
+            for (int i = 0; i < Math.min(k, counters.length); i++) {
+                Counter counter = counters[i];
+                TopProduct product = new TopProduct(counter.name, counter.count,
+                    (int) quantities.estimate(counter.name), (counter.count / finalTotalRevenue) * 100);
+                product.setApproximate(true);
+                product.setSalesError(counter.error);
+                product.setQuantityError((int) quantityError);
+                result.add(product);
+            }
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.lock();
+        try {
+            monitored.clear();
+            Arrays.fill(heap, null);
+            quantities.clear();
+            size = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void siftUp(int index) {
+        while (index > 0) {
+            int parent = (index - 1) / 2;
+            if (heap[index].count >= heap[parent].count) {
+                return;
+            }
+            swap(index, parent);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int index) {
+        while (true) {
+            int smallest = index;
+            int left = 2 * index + 1;
+            int right = left + 1;
+            if (left < size && heap[left].count < heap[smallest].count) {
+                smallest = left;
+            }
+            if (right < size && heap[right].count < heap[smallest].count) {
+                smallest = right;
+            }
+            if (smallest == index) {
+                return;
+            }
+            swap(index, smallest);
+            index = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        Counter tmp = heap[a];
+        heap[a] = heap[b];
+        heap[b] = tmp;
+        heap[a].index = a;
+        heap[b].index = b;
+    }
+
+    private static final class Counter {
+        private String name;
+        private double count;
+        private double error;
+        private int index;
+
+        private Counter(String name, double count, double error) {
+            this.name = name;
+            this.count = count;
+            this.error = error;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.salesanalytics.analytics;
+
+import com.salesanalytics.dto.TopProduct;
+
+import java.util.List;
+
+/**
+ * Tracks per-product revenue and quantity and answers top-K by revenue.
+ * Implementations must be safe for concurrent {@link #add} and {@link #top}.
+ */
+public interface TopKTracker {
+
+    void add(String productName, double revenue, long quantity);
+
+    /** The k best-selling products, highest revenue first. */
+    List<TopProduct> top(int k, double totalRevenue);
+
+    /** Number of products currently held in memory. */
+    int size();
+
+    void clear();
+}
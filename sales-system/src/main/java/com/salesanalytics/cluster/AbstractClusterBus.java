@@ -0,0 +1,45 @@
+package com.salesanalytics.cluster;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/** Node identity and listener dispatch shared by the bus implementations. */
+abstract class AbstractClusterBus implements ClusterBus {
+
+    private static final Logger logger = LoggerFactory.getLogger(AbstractClusterBus.class);
+
+    private final String nodeId;
+    private final List<Consumer<ClusterEvent>> listeners = new CopyOnWriteArrayList<>();
+
+    AbstractClusterBus(String nodeId) {
+        this.nodeId = nodeId;
+    }
+
+    @Override
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    @Override
+    public void subscribe(Consumer<ClusterEvent> listener) {
+        listeners.add(listener);
+    }
+
+    void deliver(ClusterEvent event) {
+        if (nodeId.equals(event.nodeId())) {
+            return;
+        }
+        for (Consumer<ClusterEvent> listener : listeners) {
+            try {
+                listener.accept(event);
+            } catch (RuntimeException e) {
+                logger.warn("Cluster listener failed on {} from {}: {}",
+                    event.getClass().getSimpleName(), event.nodeId(), e.getMessage());
+            }
+        }
+    }
+}
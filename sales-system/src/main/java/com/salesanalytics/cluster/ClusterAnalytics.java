@@ -0,0 +1,285 @@
+package com.salesanalytics.cluster;
+
+import com.salesanalytics.analytics.AnalyticsEngine;
+import com.salesanalytics.analytics.AnalyticsReadModel;
+import com.salesanalytics.dto.Analytics;
+import com.salesanalytics.dto.OrderResponse;
+import com.salesanalytics.dto.RevenueWindow;
+import com.salesanalytics.dto.TopProduct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cluster-wide read model: this node's {@link AnalyticsEngine} merged with
+ * the latest aggregates published by the other nodes. Each node only
+ * aggregates the orders it accepted, so totals and revenue windows add up;
+ * top products are merged from every node's top {@link #SHARED_TOP_PRODUCTS}
+ * and flagged approximate, with an error bound, where a node's list was cut
+ * off. Nodes that have not been heard from within the timeout are left out.
+ *
+ * With no live peers this is the local engine unchanged.
+ */
+@Primary
+@Component
+public class ClusterAnalytics implements AnalyticsReadModel {
+
+    static final int SHARED_TOP_PRODUCTS = 100;
+
+    private static final int TOP_PRODUCTS_LIMIT = 5;
+    private static final int RECENT_ORDERS_LIMIT = 10;
+    private static final String MINUTE_WINDOW = "1m";
+
+    private final AnalyticsEngine local;
+    private final long nodeTimeoutNanos;
+    private final ConcurrentHashMap<String, RemoteNode> remotes = new ConcurrentHashMap<>();
+
+    public ClusterAnalytics(
+            AnalyticsEngine local,
+            @Value("${cluster.node-timeout-ms:10000}") long nodeTimeoutMs) {
+        this.local = local;
+        this.nodeTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(nodeTimeoutMs);
+    }
+
+    /** This node's own aggregates, in the form published to the other nodes. */
+    public Analytics localAggregate() {
+        Analytics analytics = local.snapshot();
+        analytics.setTopProducts(local.getTopProducts(SHARED_TOP_PRODUCTS));
+        return analytics;
+    }
+
+    /** Stores a peer's aggregates; returns false if a newer one is already held. */
+    public boolean update(ClusterEvent.NodeAnalytics event) {
+        boolean[] accepted = new boolean[1];
+        remotes.compute(event.nodeId(), (nodeId, current) -> {
+            if (current != null && current.sequence() >= event.sequence()) {
+                return current;
+            }
+            accepted[0] = true;
+            return new RemoteNode(event.sequence(), System.nanoTime(), event.analytics());
+        });
+        return accepted[0];
+    }
+
+    public boolean remove(String nodeId) {
+        return remotes.remove(nodeId) != null;
+    }
+
+    /** Drops peers not heard from within the timeout and returns their ids. */
+    public List<String> expire() {
+        long now = System.nanoTime();
+        List<String> expired = new ArrayList<>();
+        remotes.forEach((nodeId, node) -> {
+            if (now - node.receivedAt() > nodeTimeoutNanos && remotes.remove(nodeId, node)) {
+                expired.add(nodeId);
+            }
+        });
+        return expired;
+    }
+
+    /** Live nodes, this one included. */
+    public int getNodeCount() {
+        return 1 + livePeers().size();
+    }
+
+    @Override
+    public Analytics snapshot() {
+        List<Analytics> peers = livePeers();
+        if (peers.isEmpty()) {
+            return local.snapshot();
+        }
+
+        List<Analytics> nodes = new ArrayList<>(peers.size() + 1);
+        nodes.add(localAggregate());
+        nodes.addAll(peers);
+
+        double revenue = 0;
+        int orders = 0;
+        for (Analytics node : nodes) {
+            revenue += node.getTotalRevenue();
+            orders += node.getTotalOrders();
+        }
+
+        List<RevenueWindow> windows = mergeWindows(nodes);
+        RevenueWindow lastMinute = windows.stream()
+            .filter(window -> MINUTE_WINDOW.equals(window.getWindow()))
+            .findFirst()
+            .orElse(null);
+
+        return new Analytics(
+            revenue,
+            orders,
+            mergeTopProducts(nodes, TOP_PRODUCTS_LIMIT, revenue),
+            mergeRecentOrders(nodes.stream().map(Analytics::getRecentOrders).toList()),
+            lastMinute != null ? lastMinute.getRevenueChange() : 0.0,
+            lastMinute != null ? lastMinute.getOrders() : 0,
+            windows
+        );
+    }
+
+    @Override
+    public List<TopProduct> getTopProducts(int limit) {
+        List<Analytics> peers = livePeers();
+        if (peers.isEmpty()) {
+            return local.getTopProducts(limit);
+        }
+        List<Analytics> nodes = new ArrayList<>(peers.size() + 1);
+        nodes.add(localAggregate());
+        nodes.addAll(peers);
+        double revenue = nodes.stream().mapToDouble(Analytics::getTotalRevenue).sum();
+        return mergeTopProducts(nodes, limit, revenue);
+    }
+
+    @Override
+    public List<OrderResponse> getRecentOrders() {
+        List<Analytics> peers = livePeers();
+        if (peers.isEmpty()) {
+            return local.getRecentOrders();
+        }
+        List<List<OrderResponse>> recent = new ArrayList<>(peers.size() + 1);
+        recent.add(local.getRecentOrders());
+        peers.forEach(peer -> recent.add(peer.getRecentOrders()));
+        return mergeRecentOrders(recent);
+    }
+
+    @Override
+    public long getOrderCount() {
+        long count = local.getOrderCount();
+        for (Analytics peer : livePeers()) {
+            count += peer.getTotalOrders();
+        }
+        return count;
+    }
+
+    /** Rebuilds this node's part; peers rebuild and republish their own. */
+    @Override
+    public void reload() {
+        local.reload();
+    }
+
+    private List<Analytics> livePeers() {
+        if (remotes.isEmpty()) {
+            return List.of();
+        }
+        long now = System.nanoTime();
+        List<Analytics> peers = new ArrayList<>(remotes.size());
+        for (RemoteNode node : remotes.values()) {
+            if (now - node.receivedAt() <= nodeTimeoutNanos) {
+                peers.add(node.analytics());
+            }
+        }
+        return peers;
+    }
+
+    // Windows are matched by label; nodes are expected to run with the same analytics.windows
+    private static List<RevenueWindow> mergeWindows(List<Analytics> nodes) {
+        Map<String, double[]> sums = new LinkedHashMap<>();
+        for (Analytics node : nodes) {
+            if (node.getWindows() == null) {
+                continue;
+            }
+            for (RevenueWindow window : node.getWindows()) {
+                double[] sum = sums.computeIfAbsent(window.getWindow(), label -> new double[4]);
+                sum[0] += window.getRevenue();
+                sum[1] += window.getOrders();
+                sum[2] += window.getPreviousRevenue();
+                sum[3] += window.getPreviousOrders();
+            }
+        }
+
+        List<RevenueWindow> windows = new ArrayList<>(sums.size());
+        sums.forEach((label, sum) -> {
+            // Same period-over-period change as AnalyticsEngine, on the cluster totals
+            double revenueChange = 0.0;
+            if (sum[2] > 0) {
+                revenueChange = ((sum[0] - sum[2]) / sum[2]) * 100;
+            } else if (sum[0] > 0) {
+                revenueChange = 100.0;
+            }
+            windows.add(new RevenueWindow(label, sum[0], (int) sum[1], sum[2], (int) sum[3], revenueChange));
+        });
+        return windows;
+    }
+
+    /**
+     * Sums each product over the nodes that list it. A node whose list is
+     * full may hold a product below its cut-off, so for every such node
+     * that does not list it the product's error grows by that node's
+     * smallest listed sales and quantity.
+     */
+    private static List<TopProduct> mergeTopProducts(List<Analytics> nodes, int limit, double totalRevenue) {
+        Map<String, TopProduct> merged = new HashMap<>();
+        List<Set<String>> listed = new ArrayList<>(nodes.size());
+        for (Analytics node : nodes) {
+            List<TopProduct> products = node.getTopProducts() != null ? node.getTopProducts() : List.of();
+            Set<String> names = new HashSet<>();
+            for (TopProduct product : products) {
+                names.add(product.getName());
+                TopProduct total = merged.computeIfAbsent(product.getName(),
+                    name -> new TopProduct(name, 0.0, 0, 0.0));
+                total.setTotalSales(total.getTotalSales() + product.getTotalSales());
+                total.setQuantity(total.getQuantity() + product.getQuantity());
+                if (Boolean.TRUE.equals(product.getApproximate())) {
+                    addError(total, product.getSalesError(), product.getQuantityError());
+                }
+            }
+            listed.add(names);
+        }
+
+        for (int i = 0; i < nodes.size(); i++) {
+            List<TopProduct> products = nodes.get(i).getTopProducts();
+            if (products == null || products.size() < SHARED_TOP_PRODUCTS) {
+                continue;
+            }
+            double salesFloor = products.get(products.size() - 1).getTotalSales();
+            int quantityFloor = products.stream().mapToInt(TopProduct::getQuantity).min().orElse(0);
+            for (TopProduct total : merged.values()) {
+                if (!listed.get(i).contains(total.getName())) {
+                    addError(total, salesFloor, quantityFloor);
+                }
+            }
+        }
+
+        double revenue = totalRevenue > 0 ? totalRevenue : 1;
+        List<TopProduct> top = new ArrayList<>(merged.values());
+        top.sort(Comparator.comparingDouble(TopProduct::getTotalSales).reversed());
+        top = new ArrayList<>(top.subList(0, Math.min(limit, top.size())));
+        top.forEach(product -> product.setPercentage((product.getTotalSales() / revenue) * 100));
+        return top;
+    }
+
+    private static void addError(TopProduct product, Double salesError, Integer quantityError) {
+        product.setApproximate(true);
+        product.setSalesError((product.getSalesError() != null ? product.getSalesError() : 0.0)
+            + (salesError != null ? salesError : 0.0));
+        product.setQuantityError((product.getQuantityError() != null ? product.getQuantityError() : 0)
+            + (quantityError != null ? quantityError : 0));
+    }
+
+    // Each node keeps its own newest orders; the cluster's newest are the latest accepted among them
+    private static List<OrderResponse> mergeRecentOrders(List<List<OrderResponse>> nodes) {
+        List<OrderResponse> orders = new ArrayList<>();
+        for (List<OrderResponse> recent : nodes) {
+            if (recent != null) {
+                orders.addAll(recent);
+            }
+        }
+        orders.sort(Comparator.comparing(OrderResponse::getCreatedAt,
+            Comparator.nullsLast(Comparator.<LocalDateTime>reverseOrder())));
+        return new ArrayList<>(orders.subList(0, Math.min(RECENT_ORDERS_LIMIT, orders.size())));
+    }
+
+    private record RemoteNode(long sequence, long receivedAt, Analytics analytics) {}
+}
@@ -0,0 +1,22 @@
+package com.salesanalytics.cluster;
+
+import java.util.function.Consumer;
+
+/**
+ * Transport for {@link ClusterEvent}s between the nodes serving the same
+ * dashboards. Delivery is best effort and unordered across publishers;
+ * analytics are always sent as full per-node state, so a lost event is
+ * repaired by the next one.
+ */
+public interface ClusterBus extends AutoCloseable {
+
+    String getNodeId();
+
+    void publish(ClusterEvent event);
+
+    /** Registers a listener for events published by other nodes (never this one). */
+    void subscribe(Consumer<ClusterEvent> listener);
+
+    @Override
+    void close();
+}
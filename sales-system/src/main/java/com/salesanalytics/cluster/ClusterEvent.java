@@ -0,0 +1,36 @@
+package com.salesanalytics.cluster;
+
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.salesanalytics.dto.Analytics;
+import com.salesanalytics.dto.OrderResponse;
+
+import java.util.List;
+
+/**
+ * Messages exchanged between nodes over the {@link ClusterBus}. Every event
+ * names the node that published it.
+ */
+@JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "kind")
+@JsonSubTypes({
+    @JsonSubTypes.Type(value = ClusterEvent.OrdersCreated.class, name = "orders"),
+    @JsonSubTypes.Type(value = ClusterEvent.NodeAnalytics.class, name = "analytics"),
+    @JsonSubTypes.Type(value = ClusterEvent.NodeLeft.class, name = "left")
+})
+public sealed interface ClusterEvent {
+
+    String nodeId();
+
+    /** Orders committed on the publishing node, for the other nodes' new_order feeds. */
+    record OrdersCreated(String nodeId, List<OrderResponse> orders) implements ClusterEvent {}
+
+    /**
+     * The publishing node's own aggregates (its orders only), replacing any
+     * earlier one with a lower sequence. Its top products list is longer
+     * than a dashboard's so the merged ranking stays close to exact.
+     */
+    record NodeAnalytics(String nodeId, long sequence, Analytics analytics) implements ClusterEvent {}
+
+    /** Sent on shutdown so peers drop the node's aggregates right away. */
+    record NodeLeft(String nodeId) implements ClusterEvent {}
+}
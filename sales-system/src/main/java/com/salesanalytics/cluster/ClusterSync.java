@@ -0,0 +1,176 @@
+package com.salesanalytics.cluster;
+
+import com.salesanalytics.dto.OrderResponse;
+import com.salesanalytics.entity.ClusterNode;
+import com.salesanalytics.event.OrdersImportedEvent;
+import com.salesanalytics.event.OrdersPlacedEvent;
+import com.salesanalytics.repository.ClusterNodeRepository;
+import com.salesanalytics.websocket.AnalyticsBroadcaster;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Connects this node to the {@link ClusterBus}. Orders committed here are
+ * batched and published once per tick, together with this node's
+ * aggregates whenever they changed (and at least every heartbeat, which
+ * also keeps the node alive in its peers' views). Orders from other nodes
+ * go out on the local new_order feed, and their aggregates are merged into
+ * {@link ClusterAnalytics}.
+ *
+ * Every node aggregates only the orders it accepted, so nodes sharing a
+ * database would count its orders once per node. With a cluster bus
+ * configured each node registers itself in the cluster_nodes table and
+ * refreshes the entry every heartbeat; a node finding another live entry
+ * there at startup fails instead of joining.
+ */
+@Component
+public class ClusterSync {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClusterSync.class);
+
+    private final ClusterBus bus;
+    private final ClusterAnalytics clusterAnalytics;
+    private final AnalyticsBroadcaster broadcaster;
+    private final ClusterNodeRepository clusterNodeRepository;
+    private final boolean registerNode;
+    private final long heartbeatNanos;
+    private final long nodeTimeoutMs;
+
+    private final ConcurrentLinkedQueue<OrderResponse> pendingOrders = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean dirty = new AtomicBoolean(true);
+    // Seeded from the start time: a restarted node publishes well under one update per millisecond,
+    // so its sequence starts above the last one its peers still hold from before the restart
+    private final AtomicLong sequence = new AtomicLong(System.currentTimeMillis());
+    private volatile long lastPublished;
+    private volatile long lastRegistered;
+
+    public ClusterSync(
+            ClusterBus bus,
+            ClusterAnalytics clusterAnalytics,
+            AnalyticsBroadcaster broadcaster,
+            ClusterNodeRepository clusterNodeRepository,
+            @Value("${cluster.bus:none}") String busType,
+            @Value("${cluster.heartbeat-ms:2000}") long heartbeatMs,
+            @Value("${cluster.node-timeout-ms:10000}") long nodeTimeoutMs) {
+        this.bus = bus;
+        this.clusterAnalytics = clusterAnalytics;
+        this.broadcaster = broadcaster;
+        this.clusterNodeRepository = clusterNodeRepository;
+        this.registerNode = !"none".equals(busType);
+        this.heartbeatNanos = TimeUnit.MILLISECONDS.toNanos(heartbeatMs);
+        this.nodeTimeoutMs = nodeTimeoutMs;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (registerNode) {
+            register();
+        }
+        bus.subscribe(this::received);
+    }
+
+    // Registers before looking for others, so of two nodes starting together neither gets through unseen
+    private void register() {
+        String nodeId = bus.getNodeId();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime liveSince = now.minusNanos(TimeUnit.MILLISECONDS.toNanos(nodeTimeoutMs));
+        clusterNodeRepository.deleteExpired(liveSince);
+        clusterNodeRepository.save(new ClusterNode(nodeId, now));
+        lastRegistered = System.nanoTime();
+
+        List<String> others = clusterNodeRepository.findOtherLiveNodeIds(nodeId, liveSince);
+        if (!others.isEmpty()) {
+            clusterNodeRepository.deleteById(nodeId);
+            throw new IllegalStateException("Cluster nodes " + others + " already use this database; "
+                + "nodes aggregate only the orders they accepted, so each one needs a database of its own");
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void ordersPlaced(OrdersPlacedEvent event) {
+        pendingOrders.addAll(event.responses());
+        dirty.set(true);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void ordersImported(OrdersImportedEvent event) {
+        dirty.set(true);
+    }
+
+    @Scheduled(fixedDelayString = "${cluster.publish-ms:250}")
+    public void publish() {
+        List<OrderResponse> orders = new ArrayList<>();
+        OrderResponse order;
+        while ((order = pendingOrders.poll()) != null) {
+            orders.add(order);
+        }
+        if (!orders.isEmpty()) {
+            bus.publish(new ClusterEvent.OrdersCreated(bus.getNodeId(), orders));
+        }
+
+        long now = System.nanoTime();
+        if (dirty.getAndSet(false) || now - lastPublished >= heartbeatNanos) {
+            lastPublished = now;
+            bus.publish(new ClusterEvent.NodeAnalytics(
+                bus.getNodeId(), sequence.incrementAndGet(), clusterAnalytics.localAggregate()));
+        }
+
+        if (registerNode && now - lastRegistered >= heartbeatNanos) {
+            lastRegistered = now;
+            try {
+                clusterNodeRepository.save(new ClusterNode(bus.getNodeId(), LocalDateTime.now()));
+            } catch (RuntimeException e) {
+                logger.warn("Failed to refresh the cluster node registration: {}", e.toString());
+            }
+        }
+
+        List<String> expired = clusterAnalytics.expire();
+        if (!expired.isEmpty()) {
+            logger.warn("Cluster nodes {} timed out, dropping their analytics", expired);
+            broadcaster.analyticsChanged();
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        bus.publish(new ClusterEvent.NodeLeft(bus.getNodeId()));
+        if (registerNode) {
+            try {
+                clusterNodeRepository.deleteById(bus.getNodeId());
+            } catch (RuntimeException e) {
+                logger.warn("Failed to remove the cluster node registration: {}", e.toString());
+            }
+        }
+    }
+
+    private void received(ClusterEvent event) {
+        switch (event) {
+            case ClusterEvent.OrdersCreated created -> broadcaster.ordersCreated(created.orders());
+            case ClusterEvent.NodeAnalytics analytics -> {
+                if (clusterAnalytics.update(analytics)) {
+                    broadcaster.analyticsChanged();
+                }
+            }
+            case ClusterEvent.NodeLeft left -> {
+                if (clusterAnalytics.remove(left.nodeId())) {
+                    logger.info("Cluster node {} left", left.nodeId());
+                    broadcaster.analyticsChanged();
+                }
+            }
+        }
+    }
+}
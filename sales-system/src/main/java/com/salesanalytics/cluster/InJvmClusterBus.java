@@ -0,0 +1,40 @@
+package com.salesanalytics.cluster;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bus between nodes running in the same JVM (several application contexts
+ * on one channel). Events are handed over by reference on the publishing
+ * thread, so listeners must treat them as immutable and return quickly.
+ */
+public class InJvmClusterBus extends AbstractClusterBus {
+
+    private static final Map<String, Set<InJvmClusterBus>> CHANNELS = new ConcurrentHashMap<>();
+
+    private final String channel;
+
+    public InJvmClusterBus(String nodeId, String channel) {
+        super(nodeId);
+        this.channel = channel;
+        CHANNELS.computeIfAbsent(channel, name -> ConcurrentHashMap.newKeySet()).add(this);
+    }
+
+    @Override
+    public void publish(ClusterEvent event) {
+        for (InJvmClusterBus peer : CHANNELS.getOrDefault(channel, Set.of())) {
+            if (peer != this) {
+                peer.deliver(event);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        CHANNELS.computeIfPresent(channel, (name, buses) -> {
+            buses.remove(this);
+            return buses.isEmpty() ? null : buses;
+        });
+    }
+}
@@ -0,0 +1,137 @@
+package com.salesanalytics.cluster;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.MulticastSocket;
+import java.net.NetworkInterface;
+import java.net.StandardSocketOptions;
+
+/**
+ * Bus over UDP multicast, one Smile-encoded event per datagram. Every node
+ * joins the same group and port (the socket reuses the address), and
+ * multicast loopback is on, so several instances on one machine form a
+ * cluster as well. Datagrams that are lost or arrive out of order are not
+ * retried: a missed order batch only skips those new_order messages on the
+ * other nodes, and analytics are resent in full on every heartbeat.
+ */
+public class MulticastClusterBus extends AbstractClusterBus {
+
+    private static final Logger logger = LoggerFactory.getLogger(MulticastClusterBus.class);
+
+    // Below the 65,507 byte UDP payload limit
+    private static final int MAX_DATAGRAM = 60_000;
+
+    private final InetSocketAddress group;
+    private final NetworkInterface networkInterface;
+    private final MulticastSocket socket;
+    private final ObjectWriter writer;
+    private final ObjectReader reader;
+    private final Thread receiver;
+    private volatile boolean closed;
+
+    public MulticastClusterBus(String nodeId, ObjectMapper objectMapper, String groupAddress, int port,
+                               String interfaceName, int timeToLive) throws IOException {
+        super(nodeId);
+        ObjectMapper smileMapper = objectMapper.copyWith(new SmileFactory());
+        this.writer = smileMapper.writerFor(ClusterEvent.class);
+        this.reader = smileMapper.readerFor(ClusterEvent.class);
+        this.group = new InetSocketAddress(InetAddress.getByName(groupAddress), port);
+
+        if (interfaceName == null || interfaceName.isBlank()) {
+            this.networkInterface = null;
+        } else {
+            this.networkInterface = NetworkInterface.getByName(interfaceName);
+            if (this.networkInterface == null) {
+                throw new IllegalArgumentException("Unknown cluster.multicast.interface: " + interfaceName);
+            }
+        }
+
+        this.socket = new MulticastSocket(port);
+        socket.setOption(StandardSocketOptions.IP_MULTICAST_LOOP, true);
+        socket.setTimeToLive(timeToLive);
+        if (networkInterface != null) {
+            socket.setNetworkInterface(networkInterface);
+        }
+        socket.joinGroup(group, networkInterface);
+
+        this.receiver = Thread.ofPlatform()
+            .name("cluster-multicast-receiver")
+            .daemon()
+            .start(this::receive);
+        logger.info("Node {} joined cluster group {}", nodeId, group);
+    }
+
+    @Override
+    public void publish(ClusterEvent event) {
+        byte[] payload;
+        try {
+            payload = writer.writeValueAsBytes(event);
+        } catch (IOException e) {
+            logger.warn("Error encoding cluster event {}: {}", event.getClass().getSimpleName(), e.getMessage());
+            return;
+        }
+
+        if (payload.length > MAX_DATAGRAM) {
+            // Order batches split until each half fits; anything else is dropped
+            if (event instanceof ClusterEvent.OrdersCreated created && created.orders().size() > 1) {
+                int half = created.orders().size() / 2;
+                publish(new ClusterEvent.OrdersCreated(created.nodeId(), created.orders().subList(0, half)));
+                publish(new ClusterEvent.OrdersCreated(created.nodeId(), created.orders().subList(half, created.orders().size())));
+                return;
+            }
+            logger.warn("Cluster event {} of {} bytes does not fit in a datagram, dropped",
+                event.getClass().getSimpleName(), payload.length);
+            return;
+        }
+
+        try {
+            socket.send(new DatagramPacket(payload, payload.length, group));
+        } catch (IOException e) {
+            logger.warn("Error sending cluster event {}: {}", event.getClass().getSimpleName(), e.getMessage());
+        }
+    }
+
+    private void receive() {
+        byte[] buffer = new byte[65_536];
+        DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+        while (!closed) {
+            ClusterEvent event;
+            try {
+                packet.setLength(buffer.length);
+                socket.receive(packet);
+                event = reader.readValue(buffer, 0, packet.getLength());
+            } catch (IOException e) {
+                if (!closed) {
+                    logger.warn("Dropped cluster datagram: {}", e.getMessage());
+                }
+                continue;
+            }
+            deliver(event);
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            socket.leaveGroup(group, networkInterface);
+        } catch (IOException e) {
+            logger.debug("Error leaving cluster group {}: {}", group, e.getMessage());
+        }
+        socket.close();
+        try {
+            receiver.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
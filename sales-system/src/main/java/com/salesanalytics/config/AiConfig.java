@@ -0,0 +1,23 @@
+package com.salesanalytics.config;
+
+import com.salesanalytics.ai.CircuitBreaker;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class AiConfig {
+
+    @Bean
+    public CircuitBreaker aiCircuitBreaker(
+            MeterRegistry meterRegistry,
+            @Value("${ai.circuit-breaker.failure-threshold:5}") int failureThreshold,
+            @Value("${ai.circuit-breaker.slow-call-ms:10000}") long slowCallMs,
+            @Value("${ai.circuit-breaker.open-seconds:30}") long openSeconds) {
+        return CircuitBreaker.create("deepseek", failureThreshold,
+            Duration.ofMillis(slowCallMs), Duration.ofSeconds(openSeconds), meterRegistry);
+    }
+}
@@ -0,0 +1,25 @@
+package com.salesanalytics.config;
+
+import com.salesanalytics.analytics.ExactTopKTracker;
+import com.salesanalytics.analytics.SpaceSavingTopKTracker;
+import com.salesanalytics.analytics.TopKTracker;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class AnalyticsConfig {
+
+    @Bean
+    public TopKTracker topKTracker(
+            @Value("${analytics.top-products.mode:exact}") String mode,
+            @Value("${analytics.top-products.capacity:1000}") int capacity,
+            @Value("${analytics.top-products.sketch-width:2048}") int sketchWidth,
+            @Value("${analytics.top-products.sketch-depth:5}") int sketchDepth) {
+        return switch (mode) {
+            case "exact" -> new ExactTopKTracker();
+            case "approximate" -> new SpaceSavingTopKTracker(capacity, sketchWidth, sketchDepth);
+            default -> throw new IllegalArgumentException("Unknown analytics.top-products.mode: " + mode);
+        };
+    }
+}
@@ -0,0 +1,56 @@
+package com.salesanalytics.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Executors for outbound I/O. With spring.threads.virtual.enabled=true
+ * (which also moves Tomcat request handling and the @Scheduled writers onto
+ * virtual threads) each task gets its own virtual thread instead of a slot
+ * in a fixed platform-thread pool, so blocking sends and LLM calls no
+ * longer cap concurrency.
+ */
+@Configuration
+public class AsyncConfig {
+
+    private final boolean virtualThreads;
+
+    public AsyncConfig(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+
+    @Bean(name = "webSocketSendExecutor")
+    public AsyncTaskExecutor webSocketSendExecutor(
+            @Value("${websocket.send.threads:8}") int threads) {
+        return createExecutor("ws-send-", threads);
+    }
+
+    @Bean(name = "recommendationExecutor")
+    public AsyncTaskExecutor recommendationExecutor(
+            @Value("${ai.recommendations.refresh-threads:2}") int threads) {
+        return createExecutor("ai-refresh-", threads);
+    }
+
+    @Bean(name = "analyticsRebuildExecutor")
+    public AsyncTaskExecutor analyticsRebuildExecutor() {
+        return createExecutor("analytics-rebuild-", 1);
+    }
+
+    private AsyncTaskExecutor createExecutor(String threadNamePrefix, int threads) {
+        if (virtualThreads) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(threadNamePrefix);
+            executor.setVirtualThreads(true);
+            return executor;
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setThreadNamePrefix(threadNamePrefix);
+        executor.initialize();
+        return executor;
+    }
+}
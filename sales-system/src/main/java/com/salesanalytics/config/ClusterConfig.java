@@ -0,0 +1,36 @@
+package com.salesanalytics.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.salesanalytics.cluster.ClusterBus;
+import com.salesanalytics.cluster.InJvmClusterBus;
+import com.salesanalytics.cluster.MulticastClusterBus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.util.UUID;
+
+@Configuration
+public class ClusterConfig {
+
+    @Bean
+    public ClusterBus clusterBus(
+            ObjectMapper objectMapper,
+            @Value("${cluster.bus:none}") String bus,
+            @Value("${cluster.node-id:}") String nodeId,
+            @Value("${cluster.in-jvm.channel:sales}") String channel,
+            @Value("${cluster.multicast.group:239.255.42.99}") String group,
+            @Value("${cluster.multicast.port:45999}") int port,
+            @Value("${cluster.multicast.interface:}") String networkInterface,
+            @Value("${cluster.multicast.ttl:1}") int timeToLive) throws IOException {
+        String id = nodeId.isBlank() ? UUID.randomUUID().toString() : nodeId;
+        return switch (bus) {
+            // A channel of its own: a single node with no peers
+            case "none" -> new InJvmClusterBus(id, id);
+            case "in-jvm" -> new InJvmClusterBus(id, channel);
+            case "multicast" -> new MulticastClusterBus(id, objectMapper, group, port, networkInterface, timeToLive);
+            default -> throw new IllegalArgumentException("Unknown cluster.bus: " + bus);
+        };
+    }
+}
@@ -0,0 +1,61 @@
+package com.salesanalytics.config;
+
+import com.salesanalytics.analytics.AnalyticsEngine;
+import com.salesanalytics.cluster.ClusterAnalytics;
+import com.salesanalytics.ingest.OrderJournal;
+import com.salesanalytics.rollup.RollupService;
+import com.salesanalytics.websocket.SalesWebSocketHandler;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Gauges over the in-memory state. Timers and counters are recorded where
+ * the work happens; these are sampled on scrape.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder salesGauges(
+            AnalyticsEngine analyticsEngine,
+            ClusterAnalytics clusterAnalytics,
+            RollupService rollupService,
+            SalesWebSocketHandler webSocketHandler,
+            ObjectProvider<OrderJournal> journal) {
+        return registry -> {
+            Gauge.builder("sales.websocket.sessions", webSocketHandler, SalesWebSocketHandler::getSessionCount)
+                .description("Open WebSocket sessions")
+                .register(registry);
+            Gauge.builder("sales.websocket.topics", webSocketHandler, SalesWebSocketHandler::getTopicCount)
+                .description("Topics with at least one subscribed session")
+                .register(registry);
+            Gauge.builder("sales.websocket.queue.depth", webSocketHandler, SalesWebSocketHandler::getQueuedMessageCount)
+                .description("Messages queued across all sessions")
+                .register(registry);
+            Gauge.builder("sales.websocket.queue.depth.max", webSocketHandler, SalesWebSocketHandler::getMaxQueueDepth)
+                .description("Deepest single-session send queue")
+                .register(registry);
+            Gauge.builder("sales.websocket.lag.max", webSocketHandler, SalesWebSocketHandler::getMaxLagSeconds)
+                .description("Age of the oldest message waiting in any session's send queue")
+                .baseUnit("seconds")
+                .register(registry);
+            Gauge.builder("sales.analytics.products", analyticsEngine, AnalyticsEngine::getTrackedProductCount)
+                .description("Products tracked by the in-memory top-K aggregate")
+                .register(registry);
+            Gauge.builder("sales.cluster.nodes", clusterAnalytics, ClusterAnalytics::getNodeCount)
+                .description("Live cluster nodes merged into the analytics, this one included")
+                .register(registry);
+            Gauge.builder("sales.rollups.pending", rollupService, RollupService::getPendingDeltaCount)
+                .description("Rollup deltas waiting for the next flush")
+                .register(registry);
+            journal.ifAvailable(orderJournal ->
+                Gauge.builder("sales.journal.pending.bytes", orderJournal, OrderJournal::getPendingBytes)
+                    .description("Journaled bytes not yet written to the database")
+                    .baseUnit("bytes")
+                    .register(registry));
+        };
+    }
+}
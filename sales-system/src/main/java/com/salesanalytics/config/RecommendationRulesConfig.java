@@ -0,0 +1,178 @@
+package com.salesanalytics.config;
+
+import com.salesanalytics.dto.Analytics;
+import com.salesanalytics.dto.Recommendation;
+import com.salesanalytics.dto.TopProduct;
+import com.salesanalytics.rules.RecommendationRule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * The rule-based recommendations. New rules are added here; the engine
+ * picks up every rule in the list, in order.
+ */
+@Configuration
+public class RecommendationRulesConfig {
+
+    private static final double HIGH_PERFORMANCE_THRESHOLD = 30.0;
+    private static final double REVENUE_DECLINE_THRESHOLD = 0.0;
+    private static final double REVENUE_SURGE_THRESHOLD = 50.0;
+
+    private enum RevenueTrend { DECLINE, STEADY, SURGE }
+
+    private enum Season { HOT, COLD, RAINY, MILD }
+
+    @Bean
+    public List<RecommendationRule> recommendationRules() {
+        return List.of(
+            new RecommendationRule(
+                "top-product-promotion",
+                analytics -> topProductName(analytics, 0) + ":"
+                    + (isHighPerformer(analytics) ? percent(analytics.getTopProducts().get(0).getPercentage()) : "-"),
+                analytics -> isHighPerformer(analytics) ? createTopProductPromotion(analytics.getTopProducts().get(0)) : null),
+            new RecommendationRule(
+                "product-bundle",
+                analytics -> topProductName(analytics, 0) + "+" + topProductName(analytics, 1),
+                analytics -> analytics.getTopProducts().size() > 1
+                    ? createProductBundle(analytics.getTopProducts().get(0), analytics.getTopProducts().get(1))
+                    : null),
+            new RecommendationRule(
+                "revenue-trend",
+                RecommendationRulesConfig::revenueTrendTrigger,
+                analytics -> switch (revenueTrend(analytics)) {
+                    case DECLINE -> createRevenueRecoveryRecommendation(analytics);
+                    case SURGE -> createRevenueSurgeRecommendation(analytics);
+                    case STEADY -> null;
+                }),
+            new RecommendationRule(
+                "seasonal",
+                analytics -> currentSeason(),
+                analytics -> createSeasonalRecommendation(currentSeason()))
+        );
+    }
+
+    // The figures as the descriptions show them; part of the triggers so the text never goes stale
+    private static String percent(double value) {
+        return String.format("%.1f", value);
+    }
+
+    private static String topProductName(Analytics analytics, int rank) {
+        List<TopProduct> topProducts = analytics.getTopProducts();
+        return topProducts.size() > rank ? topProducts.get(rank).getName() : "";
+    }
+
+    private static boolean isHighPerformer(Analytics analytics) {
+        return !analytics.getTopProducts().isEmpty()
+            && analytics.getTopProducts().get(0).getPercentage() > HIGH_PERFORMANCE_THRESHOLD;
+    }
+
+    private static RevenueTrend revenueTrend(Analytics analytics) {
+        if (analytics.getRevenueChange() < REVENUE_DECLINE_THRESHOLD) {
+            return RevenueTrend.DECLINE;
+        }
+        return analytics.getRevenueChange() > REVENUE_SURGE_THRESHOLD ? RevenueTrend.SURGE : RevenueTrend.STEADY;
+    }
+
+    private static Object revenueTrendTrigger(Analytics analytics) {
+        RevenueTrend trend = revenueTrend(analytics);
+        return trend == RevenueTrend.STEADY ? trend : trend + ":" + percent(Math.abs(analytics.getRevenueChange()));
+    }
+
+    // Northern-hemisphere seasons by calendar month
+    private static Season currentSeason() {
+        return switch (LocalDate.now().getMonth()) {
+            case JUNE, JULY, AUGUST -> Season.HOT;
+            case DECEMBER, JANUARY, FEBRUARY -> Season.COLD;
+            case MARCH, APRIL, MAY -> Season.RAINY;
+            default -> Season.MILD;
+        };
+    }
+
+    private static Recommendation createTopProductPromotion(TopProduct product) {
+        return new Recommendation(
+            "prod-promo-" + product.getName(),
+            "Promote " + product.getName(),
+            String.format("%s is performing well with %s%% of revenue",
+                product.getName(), percent(product.getPercentage())),
+            "promotion",
+            "high",
+            "Increase sales of top product"
+        );
+    }
+
+    private static Recommendation createProductBundle(TopProduct product1, TopProduct product2) {
+        return new Recommendation(
+            "bundle-" + product1.getName() + "-" + product2.getName(),
+            "Bundle Opportunity",
+            String.format("Create a bundle offer combining %s and %s",
+                product1.getName(), product2.getName()),
+            "pricing",
+            "medium",
+            "Increase average order value"
+        );
+    }
+
+    private static Recommendation createRevenueRecoveryRecommendation(Analytics analytics) {
+        return new Recommendation(
+            "rev-recovery",
+            "Revenue Recovery",
+            String.format("Revenue decreased by %s%%",
+                percent(Math.abs(analytics.getRevenueChange()))),
+            "strategy",
+            "high",
+            "Stabilize revenue"
+        );
+    }
+
+    private static Recommendation createRevenueSurgeRecommendation(Analytics analytics) {
+        return new Recommendation(
+            "rev-surge",
+            "Capitalize on Growth",
+            String.format("Revenue is surging with %s%% growth",
+                percent(analytics.getRevenueChange())),
+            "inventory",
+            "medium",
+            "Maintain growth momentum"
+        );
+    }
+
+    private static Recommendation createSeasonalRecommendation(Season season) {
+        return switch (season) {
+            case HOT -> new Recommendation(
+                "seasonal-hot",
+                "Hot Weather Promotion",
+                "Promote cooling products and summer accessories",
+                "seasonal",
+                "medium",
+                "Boost seasonal product sales"
+            );
+            case COLD -> new Recommendation(
+                "seasonal-cold",
+                "Cold Weather Strategy",
+                "Promote warm beverages and winter accessories",
+                "seasonal",
+                "medium",
+                "Increase winter product sales"
+            );
+            case RAINY -> new Recommendation(
+                "seasonal-rainy",
+                "Rainy Day Specials",
+                "Promote indoor entertainment and comfort products",
+                "seasonal",
+                "low",
+                "Increase indoor product sales"
+            );
+            case MILD -> new Recommendation(
+                "seasonal-default",
+                "Optimize Product Mix",
+                "Promote outdoor and recreational products",
+                "seasonal",
+                "low",
+                "Increase outdoor product sales"
+            );
+        };
+    }
+}
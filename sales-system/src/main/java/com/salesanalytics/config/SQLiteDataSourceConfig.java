@@ -0,0 +1,82 @@
+package com.salesanalytics.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Connection setup for the sqlite profile. SQLite allows one writer at a
+ * time, so writes go through a single pooled connection (taking the write
+ * lock up front with BEGIN IMMEDIATE), while read-only transactions are
+ * routed to a separate reader pool that WAL mode lets run alongside the
+ * writer.
+ */
+@Configuration
+@Profile("sqlite")
+public class SQLiteDataSourceConfig {
+
+    @Bean
+    public DataSource dataSource(
+            @Value("${spring.datasource.url}") String url,
+            @Value("${sqlite.reader-pool-size:4}") int readerPoolSize,
+            @Value("${sqlite.mmap-size:268435456}") long mmapSize,
+            @Value("${sqlite.busy-timeout-ms:5000}") int busyTimeoutMs) throws IOException {
+        createParentDirectory(url);
+
+        HikariDataSource writer = createPool("sqlite-writer", url, 1, mmapSize, busyTimeoutMs, false);
+        HikariDataSource reader = createPool("sqlite-reader", url, readerPoolSize, mmapSize, busyTimeoutMs, true);
+
+        // Connections are fetched lazily, once the transaction's read-only flag is known
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(writer);
+        dataSource.setReadOnlyDataSource(reader);
+        return dataSource;
+    }
+
+    private static HikariDataSource createPool(String name, String url, int size, long mmapSize, int busyTimeoutMs,
+                                               boolean readOnly) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(name);
+        config.setDriverClassName("org.sqlite.JDBC");
+        config.setJdbcUrl(url);
+        config.setMaximumPoolSize(size);
+        config.setMinimumIdle(size);
+        config.addDataSourceProperty("journal_mode", "WAL");
+        config.addDataSourceProperty("synchronous", "NORMAL");
+        config.addDataSourceProperty("busy_timeout", String.valueOf(busyTimeoutMs));
+        if (readOnly) {
+            // The lazy proxy routes to this pool without flagging the connection, so the pool does
+            config.setReadOnly(true);
+        } else {
+            // Set before the pool is built; a started pool's configuration is sealed
+            config.addDataSourceProperty("transaction_mode", "IMMEDIATE");
+        }
+        // Lets setReadOnly toggle PRAGMA query_only on an open connection
+        config.addDataSourceProperty("jdbc.explicit_readonly", "true");
+        config.setConnectionInitSql("PRAGMA mmap_size=" + mmapSize);
+        return new HikariDataSource(config);
+    }
+
+    private static void createParentDirectory(String url) throws IOException {
+        String file = url.substring("jdbc:sqlite:".length());
+        int query = file.indexOf('?');
+        if (query >= 0) {
+            file = file.substring(0, query);
+        }
+        if (file.isEmpty() || file.startsWith(":memory:") || file.startsWith("file:")) {
+            return;
+        }
+        Path parent = Path.of(file).toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+    }
+}
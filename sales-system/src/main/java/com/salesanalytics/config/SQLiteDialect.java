@@ -3,14 +3,33 @@ package com.salesanalytics.config;
 import org.hibernate.boot.model.FunctionContributions;
 import org.hibernate.dialect.DatabaseVersion;
 import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.identity.IdentityColumnSupport;
+import org.hibernate.dialect.identity.IdentityColumnSupportImpl;
+import org.hibernate.dialect.pagination.LimitHandler;
+import org.hibernate.dialect.pagination.LimitOffsetLimitHandler;
 import org.hibernate.engine.jdbc.env.spi.NameQualifierSupport;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
 import org.hibernate.query.sqm.function.SqmFunctionRegistry;
+import org.hibernate.sql.ast.SqlAstTranslator;
+import org.hibernate.sql.ast.SqlAstTranslatorFactory;
+import org.hibernate.sql.ast.spi.AbstractSqlAstTranslator;
+import org.hibernate.sql.ast.spi.StandardSqlAstTranslatorFactory;
+import org.hibernate.sql.ast.tree.Statement;
+import org.hibernate.sql.ast.tree.select.QueryPart;
+import org.hibernate.sql.exec.spi.JdbcOperation;
 import org.hibernate.type.StandardBasicTypes; 
 
+/**
+ * Hibernate dialect for SQLite 3.35+: rowid identity columns, LIMIT/OFFSET
+ * pagination (also for HQL and Criteria queries) and INSERT ... RETURNING
+ * for generated values. SQLite has no row locks (a write transaction locks
+ * the whole database), so lock clauses such as the table generator's
+ * FOR UPDATE are rendered as nothing.
+ */
 public class SQLiteDialect extends Dialect {
 
     public SQLiteDialect() {
-        super(DatabaseVersion.make(3, 40));
+        super(DatabaseVersion.make(3, 45));
     }
 
     @Override
@@ -29,8 +48,87 @@ public class SQLiteDialect extends Dialect {
         return false;
     }
 
+    @Override
+    public IdentityColumnSupport getIdentityColumnSupport() {
+        return SQLiteIdentityColumnSupport.INSTANCE;
+    }
+
+    @Override
+    public LimitHandler getLimitHandler() {
+        return LimitOffsetLimitHandler.INSTANCE;
+    }
+
+    @Override
+    public String getForUpdateString() {
+        return "";
+    }
+
+    @Override
+    public String getForUpdateString(String aliases) {
+        return "";
+    }
+
+    @Override
+    public String getForUpdateNowaitString() {
+        return "";
+    }
+
+    @Override
+    public String getForUpdateSkipLockedString() {
+        return "";
+    }
+
+    @Override
+    public String getWriteLockString(int timeout) {
+        return "";
+    }
+
+    @Override
+    public String getWriteLockString(String aliases, int timeout) {
+        return "";
+    }
+
+    @Override
+    public String getReadLockString(int timeout) {
+        return "";
+    }
+
+    @Override
+    public String getReadLockString(String aliases, int timeout) {
+        return "";
+    }
+
+    @Override
+    public SqlAstTranslatorFactory getSqlAstTranslatorFactory() {
+        return new StandardSqlAstTranslatorFactory() {
+            @Override
+            protected <T extends JdbcOperation> SqlAstTranslator<T> buildTranslator(
+                    SessionFactoryImplementor sessionFactory, Statement statement) {
+                return new SQLiteSqlAstTranslator<>(sessionFactory, statement);
+            }
+        };
+    }
+
+    // RETURNING is available since SQLite 3.35
+    @Override
+    public boolean supportsInsertReturning() {
+        return true;
+    }
+
+    @Override
+    public boolean supportsInsertReturningGeneratedKeys() {
+        return true;
+    }
+
+    @Override
+    public boolean supportsInsertReturningRowId() {
+        return true;
+    }
+
     @Override
     public void initializeFunctionRegistry(FunctionContributions functionContributions) {
+        super.initializeFunctionRegistry(functionContributions);
+
         SqmFunctionRegistry functionRegistry = functionContributions.getFunctionRegistry();
 
         var typeConfig = functionContributions.getTypeConfiguration();
@@ -59,4 +157,45 @@ public class SQLiteDialect extends Dialect {
                 typeConfig.getBasicTypeRegistry().resolve(StandardBasicTypes.INTEGER)
         );
     }
-}
\ No newline at end of file
+
+    // An INTEGER PRIMARY KEY column is an alias for the rowid
+    private static final class SQLiteIdentityColumnSupport extends IdentityColumnSupportImpl {
+
+        static final SQLiteIdentityColumnSupport INSTANCE = new SQLiteIdentityColumnSupport();
+
+        @Override
+        public boolean supportsIdentityColumns() {
+            return true;
+        }
+
+        @Override
+        public boolean hasDataTypeInIdentityColumn() {
+            return false;
+        }
+
+        @Override
+        public String getIdentityColumnString(int type) {
+            return "integer";
+        }
+
+        @Override
+        public String getIdentitySelectString(String table, String column, int type) {
+            return "select last_insert_rowid()";
+        }
+    }
+
+    // Renders row limits as LIMIT ? OFFSET ? instead of the ANSI OFFSET/FETCH clause
+    private static final class SQLiteSqlAstTranslator<T extends JdbcOperation> extends AbstractSqlAstTranslator<T> {
+
+        SQLiteSqlAstTranslator(SessionFactoryImplementor sessionFactory, Statement statement) {
+            super(sessionFactory, statement);
+        }
+
+        @Override
+        public void visitOffsetFetchClause(QueryPart queryPart) {
+            if (!isRowNumberingCurrentQueryPart()) {
+                renderLimitOffsetClause(queryPart);
+            }
+        }
+    }
+}
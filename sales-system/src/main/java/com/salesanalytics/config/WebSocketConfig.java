@@ -1,8 +1,6 @@
 package com.salesanalytics.config;
 
-import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.web.client.RestTemplate;
 import org.springframework.web.socket.config.annotation.EnableWebSocket;
 import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
 import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
@@ -23,9 +21,4 @@ public class WebSocketConfig implements WebSocketConfigurer {
         registry.addHandler(salesWebSocketHandler, "/ws")
                 .setAllowedOrigins("http://localhost:5173", "http://localhost:3000");
     }
-
-    @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
-    }
-}
\ No newline at end of file
+}
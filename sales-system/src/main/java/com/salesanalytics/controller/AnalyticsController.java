@@ -1,28 +1,51 @@
 package com.salesanalytics.controller;
 
 import com.salesanalytics.dto.Analytics;
-import com.salesanalytics.service.OrderService;
+import com.salesanalytics.dto.RangeAnalytics;
+import com.salesanalytics.entity.BucketGranularity;
+import com.salesanalytics.service.AnalyticsQueryService;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
+import java.util.Map;
+
 @RestController
 @RequestMapping("/api/analytics")
 @CrossOrigin(origins = {"http://localhost:5173", "http://localhost:3000"})
 public class AnalyticsController {
     
-    private final OrderService orderService;
+    private final AnalyticsQueryService analyticsQueryService;
     
-    public AnalyticsController(OrderService orderService) {
-        this.orderService = orderService;
+    public AnalyticsController(AnalyticsQueryService analyticsQueryService) {
+        this.analyticsQueryService = analyticsQueryService;
     }
     
     @GetMapping
     public ResponseEntity<Analytics> getAnalytics() {
         try {
-            Analytics analytics = orderService.getAnalytics();
+            Analytics analytics = analyticsQueryService.getAnalytics();
             return ResponseEntity.ok(analytics);
         } catch (Exception e) {
             return ResponseEntity.status(500).build();
         }
     }
+    
+    @GetMapping("/range")
+    public ResponseEntity<?> getRange(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "hour") String granularity,
+            @RequestParam(required = false) String product) {
+        try {
+            BucketGranularity bucketGranularity = BucketGranularity.valueOf(granularity.toUpperCase());
+            RangeAnalytics range = analyticsQueryService.getRange(from, to, bucketGranularity, product);
+            return ResponseEntity.ok(range);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(500).build();
+        }
+    }
 }
\ No newline at end of file
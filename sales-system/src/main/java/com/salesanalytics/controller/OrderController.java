@@ -1,12 +1,33 @@
 package com.salesanalytics.controller;
 
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.salesanalytics.dto.OrderBatchResponse;
+import com.salesanalytics.dto.OrderPage;
 import com.salesanalytics.dto.OrderRequest;
 import com.salesanalytics.dto.OrderResponse;
+import com.salesanalytics.service.OrderQueryService;
 import com.salesanalytics.service.OrderService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/orders")
@@ -14,18 +35,130 @@ import org.springframework.web.bind.annotation.*;
 public class OrderController {
     
     private final OrderService orderService;
+    private final OrderQueryService orderQueryService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
     
-    public OrderController(OrderService orderService) {
+    public OrderController(OrderService orderService, OrderQueryService orderQueryService,
+                           ObjectMapper objectMapper, Validator validator) {
         this.orderService = orderService;
+        this.orderQueryService = orderQueryService;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
     }
     
     @PostMapping
     public ResponseEntity<OrderResponse> createOrder(@Valid @RequestBody OrderRequest orderRequest) {
         try {
             OrderResponse response = orderService.createOrder(orderRequest);
-            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+            // Journaled orders are accepted but not yet stored, so they have no id yet
+            HttpStatus status = response.getId() != null ? HttpStatus.CREATED : HttpStatus.ACCEPTED;
+            return ResponseEntity.status(status).body(response);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> createOrders(@RequestBody List<OrderRequest> orderRequests) {
+        try {
+            for (int i = 0; i < orderRequests.size(); i++) {
+                validate(orderRequests.get(i), i);
+            }
+            List<OrderResponse> responses = orderService.createOrders(orderRequests);
+            return ResponseEntity.status(HttpStatus.CREATED).body(new OrderBatchResponse(responses.size()));
+        } catch (ConstraintViolationException e) {
+            return badRequest(e);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
-}
\ No newline at end of file
+    
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<?> importOrders(HttpServletRequest request) {
+        try (MappingIterator<OrderRequest> lines = objectMapper.readerFor(OrderRequest.class)
+                .readValues(request.getInputStream())) {
+            int imported = orderService.importOrders(new ValidatingIterator(lines));
+            return ResponseEntity.status(HttpStatus.CREATED).body(new OrderBatchResponse(imported));
+        } catch (ConstraintViolationException e) {
+            return badRequest(e);
+        } catch (IOException | RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
+    @GetMapping
+    public ResponseEntity<?> getOrders(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        try {
+            OrderPage page = orderQueryService.getOrders(cursor, limit);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        OrderQueryService.ExportFormat exportFormat;
+        try {
+            exportFormat = OrderQueryService.ExportFormat.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        MediaType contentType = exportFormat == OrderQueryService.ExportFormat.CSV
+            ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+            : MediaType.APPLICATION_NDJSON;
+        StreamingResponseBody body = out -> orderQueryService.export(exportFormat, from, to, out);
+        return ResponseEntity.ok()
+            .contentType(contentType)
+            .header(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"orders." + exportFormat.name().toLowerCase() + "\"")
+            .body(body);
+    }
+    
+    private void validate(OrderRequest orderRequest, int index) {
+        Set<ConstraintViolation<OrderRequest>> violations = validator.validate(orderRequest);
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException("Invalid order at index " + index, violations);
+        }
+    }
+    
+    private ResponseEntity<?> badRequest(ConstraintViolationException e) {
+        List<String> errors = e.getConstraintViolations().stream()
+            .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+            .toList();
+        return ResponseEntity.badRequest().body(Map.of(
+            "error", e.getMessage(),
+            "violations", errors
+        ));
+    }
+    
+    private class ValidatingIterator implements Iterator<OrderRequest> {
+        private final Iterator<OrderRequest> delegate;
+        private int index;
+        
+        ValidatingIterator(Iterator<OrderRequest> delegate) {
+            this.delegate = delegate;
+        }
+        
+        @Override
+        public boolean hasNext() {
+            return delegate.hasNext();
+        }
+        
+        @Override
+        public OrderRequest next() {
+            OrderRequest orderRequest = delegate.next();
+            validate(orderRequest, index++);
+            return orderRequest;
+        }
+    }
+}
@@ -9,6 +9,7 @@ public class Analytics {
     private List<OrderResponse> recentOrders;
     private Double revenueChange;
     private Integer ordersInLastMinute;
+    private List<RevenueWindow> windows;
     
     // Constructors
     public Analytics() {}
@@ -23,6 +24,13 @@ public class Analytics {
         this.ordersInLastMinute = ordersInLastMinute;
     }
     
+    public Analytics(Double totalRevenue, Integer totalOrders, List<TopProduct> topProducts, 
+                    List<OrderResponse> recentOrders, Double revenueChange, Integer ordersInLastMinute,
+                    List<RevenueWindow> windows) {
+        this(totalRevenue, totalOrders, topProducts, recentOrders, revenueChange, ordersInLastMinute);
+        this.windows = windows;
+    }
+    
     // Getters and Setters
     public Double getTotalRevenue() { return totalRevenue; }
     public void setTotalRevenue(Double totalRevenue) { this.totalRevenue = totalRevenue; }
@@ -41,4 +49,7 @@ public class Analytics {
     
     public Integer getOrdersInLastMinute() { return ordersInLastMinute; }
     public void setOrdersInLastMinute(Integer ordersInLastMinute) { this.ordersInLastMinute = ordersInLastMinute; }
+    
+    public List<RevenueWindow> getWindows() { return windows; }
+    public void setWindows(List<RevenueWindow> windows) { this.windows = windows; }
 }
\ No newline at end of file
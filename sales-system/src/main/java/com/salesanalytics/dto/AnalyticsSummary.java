@@ -0,0 +1,42 @@
+package com.salesanalytics.dto;
+
+import java.util.List;
+
+/**
+ * The headline numbers of an {@link Analytics} snapshot, without the
+ * recent orders and top products lists.
+ */
+public class AnalyticsSummary {
+    private Double totalRevenue;
+    private Integer totalOrders;
+    private Double revenueChange;
+    private Integer ordersInLastMinute;
+    private List<RevenueWindow> windows;
+    
+    // Constructors
+    public AnalyticsSummary() {}
+    
+    public AnalyticsSummary(Analytics analytics) {
+        this.totalRevenue = analytics.getTotalRevenue();
+        this.totalOrders = analytics.getTotalOrders();
+        this.revenueChange = analytics.getRevenueChange();
+        this.ordersInLastMinute = analytics.getOrdersInLastMinute();
+        this.windows = analytics.getWindows();
+    }
+    
+    // Getters and Setters
+    public Double getTotalRevenue() { return totalRevenue; }
+    public void setTotalRevenue(Double totalRevenue) { this.totalRevenue = totalRevenue; }
+    
+    public Integer getTotalOrders() { return totalOrders; }
+    public void setTotalOrders(Integer totalOrders) { this.totalOrders = totalOrders; }
+    
+    public Double getRevenueChange() { return revenueChange; }
+    public void setRevenueChange(Double revenueChange) { this.revenueChange = revenueChange; }
+    
+    public Integer getOrdersInLastMinute() { return ordersInLastMinute; }
+    public void setOrdersInLastMinute(Integer ordersInLastMinute) { this.ordersInLastMinute = ordersInLastMinute; }
+    
+    public List<RevenueWindow> getWindows() { return windows; }
+    public void setWindows(List<RevenueWindow> windows) { this.windows = windows; }
+}
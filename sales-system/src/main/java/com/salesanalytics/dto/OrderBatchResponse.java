@@ -0,0 +1,16 @@
+package com.salesanalytics.dto;
+
+public class OrderBatchResponse {
+    private Integer accepted;
+    
+    // Constructors
+    public OrderBatchResponse() {}
+    
+    public OrderBatchResponse(Integer accepted) {
+        this.accepted = accepted;
+    }
+    
+    // Getters and Setters
+    public Integer getAccepted() { return accepted; }
+    public void setAccepted(Integer accepted) { this.accepted = accepted; }
+}
@@ -0,0 +1,23 @@
+package com.salesanalytics.dto;
+
+import java.util.List;
+
+public class OrderPage {
+    private List<OrderResponse> orders;
+    private String nextCursor;
+    
+    // Constructors
+    public OrderPage() {}
+    
+    public OrderPage(List<OrderResponse> orders, String nextCursor) {
+        this.orders = orders;
+        this.nextCursor = nextCursor;
+    }
+    
+    // Getters and Setters
+    public List<OrderResponse> getOrders() { return orders; }
+    public void setOrders(List<OrderResponse> orders) { this.orders = orders; }
+    
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+}
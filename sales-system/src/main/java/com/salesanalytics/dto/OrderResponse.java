@@ -3,23 +3,28 @@ package com.salesanalytics.dto;
 import java.time.LocalDateTime;
 
 public class OrderResponse {
+    // Null for orders accepted by the write-behind journal and not yet flushed to the database
     private Long id;
     private String productName;
     private Integer quantity;
     private Double price;
     private LocalDateTime date;
     private Double total;
+    // When the order was accepted; orders the cluster's recent-orders feed across nodes
+    private LocalDateTime createdAt;
     
     // Constructors
     public OrderResponse() {}
     
-    public OrderResponse(Long id, String productName, Integer quantity, Double price, LocalDateTime date) {
+    public OrderResponse(Long id, String productName, Integer quantity, Double price, LocalDateTime date,
+                         LocalDateTime createdAt) {
         this.id = id;
         this.productName = productName;
         this.quantity = quantity;
         this.price = price;
         this.date = date;
         this.total = quantity * price;
+        this.createdAt = createdAt;
     }
     
     // Getters and Setters
@@ -40,4 +45,7 @@ public class OrderResponse {
     
     public Double getTotal() { return total; }
     public void setTotal(Double total) { this.total = total; }
+    
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
 }
\ No newline at end of file
@@ -0,0 +1,76 @@
+package com.salesanalytics.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Time series over the business date, in columns: the i-th entry of
+ * revenue, orders and quantity belongs to the bucket starting at buckets[i].
+ * Buckets without orders are included with zeros.
+ */
+public class RangeAnalytics {
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private String granularity;
+    private String product;
+    private List<LocalDateTime> buckets;
+    private double[] revenue;
+    private long[] orders;
+    private long[] quantity;
+    private Double totalRevenue;
+    private Long totalOrders;
+    private Long totalQuantity;
+
+    // Constructors
+    public RangeAnalytics() {}
+
+    public RangeAnalytics(LocalDateTime from, LocalDateTime to, String granularity, String product,
+                          List<LocalDateTime> buckets, double[] revenue, long[] orders, long[] quantity,
+                          Double totalRevenue, Long totalOrders, Long totalQuantity) {
+        this.from = from;
+        this.to = to;
+        this.granularity = granularity;
+        this.product = product;
+        this.buckets = buckets;
+        this.revenue = revenue;
+        this.orders = orders;
+        this.quantity = quantity;
+        this.totalRevenue = totalRevenue;
+        this.totalOrders = totalOrders;
+        this.totalQuantity = totalQuantity;
+    }
+
+    // Getters and Setters
+    public LocalDateTime getFrom() { return from; }
+    public void setFrom(LocalDateTime from) { this.from = from; }
+
+    public LocalDateTime getTo() { return to; }
+    public void setTo(LocalDateTime to) { this.to = to; }
+
+    public String getGranularity() { return granularity; }
+    public void setGranularity(String granularity) { this.granularity = granularity; }
+
+    public String getProduct() { return product; }
+    public void setProduct(String product) { this.product = product; }
+
+    public List<LocalDateTime> getBuckets() { return buckets; }
+    public void setBuckets(List<LocalDateTime> buckets) { this.buckets = buckets; }
+
+    public double[] getRevenue() { return revenue; }
+    public void setRevenue(double[] revenue) { this.revenue = revenue; }
+
+    public long[] getOrders() { return orders; }
+    public void setOrders(long[] orders) { this.orders = orders; }
+
+    public long[] getQuantity() { return quantity; }
+    public void setQuantity(long[] quantity) { this.quantity = quantity; }
+
+    public Double getTotalRevenue() { return totalRevenue; }
+    public void setTotalRevenue(Double totalRevenue) { this.totalRevenue = totalRevenue; }
+
+    public Long getTotalOrders() { return totalOrders; }
+    public void setTotalOrders(Long totalOrders) { this.totalOrders = totalOrders; }
+
+    public Long getTotalQuantity() { return totalQuantity; }
+    public void setTotalQuantity(Long totalQuantity) { this.totalQuantity = totalQuantity; }
+}
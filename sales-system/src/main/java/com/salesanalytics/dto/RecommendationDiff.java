@@ -0,0 +1,23 @@
+package com.salesanalytics.dto;
+
+import java.util.List;
+
+public class RecommendationDiff {
+    private List<Recommendation> upserted;
+    private List<String> removed;
+    
+    // Constructors
+    public RecommendationDiff() {}
+    
+    public RecommendationDiff(List<Recommendation> upserted, List<String> removed) {
+        this.upserted = upserted;
+        this.removed = removed;
+    }
+    
+    // Getters and Setters
+    public List<Recommendation> getUpserted() { return upserted; }
+    public void setUpserted(List<Recommendation> upserted) { this.upserted = upserted; }
+    
+    public List<String> getRemoved() { return removed; }
+    public void setRemoved(List<String> removed) { this.removed = removed; }
+}
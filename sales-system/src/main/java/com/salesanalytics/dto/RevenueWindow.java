@@ -0,0 +1,42 @@
+package com.salesanalytics.dto;
+
+public class RevenueWindow {
+    private String window;
+    private Double revenue;
+    private Integer orders;
+    private Double previousRevenue;
+    private Integer previousOrders;
+    private Double revenueChange;
+
+    // Constructors
+    public RevenueWindow() {}
+
+    public RevenueWindow(String window, Double revenue, Integer orders,
+                        Double previousRevenue, Integer previousOrders, Double revenueChange) {
+        this.window = window;
+        this.revenue = revenue;
+        this.orders = orders;
+        this.previousRevenue = previousRevenue;
+        this.previousOrders = previousOrders;
+        this.revenueChange = revenueChange;
+    }
+
+    // Getters and Setters
+    public String getWindow() { return window; }
+    public void setWindow(String window) { this.window = window; }
+
+    public Double getRevenue() { return revenue; }
+    public void setRevenue(Double revenue) { this.revenue = revenue; }
+
+    public Integer getOrders() { return orders; }
+    public void setOrders(Integer orders) { this.orders = orders; }
+
+    public Double getPreviousRevenue() { return previousRevenue; }
+    public void setPreviousRevenue(Double previousRevenue) { this.previousRevenue = previousRevenue; }
+
+    public Integer getPreviousOrders() { return previousOrders; }
+    public void setPreviousOrders(Integer previousOrders) { this.previousOrders = previousOrders; }
+
+    public Double getRevenueChange() { return revenueChange; }
+    public void setRevenueChange(Double revenueChange) { this.revenueChange = revenueChange; }
+}
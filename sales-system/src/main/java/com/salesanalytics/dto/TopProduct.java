@@ -1,11 +1,21 @@
 package com.salesanalytics.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 public class TopProduct {
     private String name;
     private Double totalSales;
     private Integer quantity;
     private Double percentage;
     
+    // Error bounds, only present when the top-K tracker runs in approximate mode
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Boolean approximate;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Double salesError;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer quantityError;
+    
     // Constructors
     public TopProduct() {}
     
@@ -28,4 +38,13 @@ public class TopProduct {
     
     public Double getPercentage() { return percentage; }
     public void setPercentage(Double percentage) { this.percentage = percentage; }
+    
+    public Boolean getApproximate() { return approximate; }
+    public void setApproximate(Boolean approximate) { this.approximate = approximate; }
+    
+    public Double getSalesError() { return salesError; }
+    public void setSalesError(Double salesError) { this.salesError = salesError; }
+    
+    public Integer getQuantityError() { return quantityError; }
+    public void setQuantityError(Integer quantityError) { this.quantityError = quantityError; }
 }
\ No newline at end of file
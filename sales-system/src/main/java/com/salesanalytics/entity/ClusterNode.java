@@ -0,0 +1,37 @@
+package com.salesanalytics.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * A cluster node using this database, kept current by its heartbeat. Lets a
+ * node starting against a database another live node already uses refuse
+ * to start (see {@code ClusterSync}).
+ */
+@Entity
+@Table(name = "cluster_nodes")
+public class ClusterNode {
+    
+    @Id
+    @Column(name = "node_id")
+    private String nodeId;
+    
+    @Column(name = "heartbeat_at", nullable = false)
+    private LocalDateTime heartbeatAt;
+    
+    // Constructors
+    public ClusterNode() {}
+    
+    public ClusterNode(String nodeId, LocalDateTime heartbeatAt) {
+        this.nodeId = nodeId;
+        this.heartbeatAt = heartbeatAt;
+    }
+    
+    // Getters and Setters
+    public String getNodeId() { return nodeId; }
+    public void setNodeId(String nodeId) { this.nodeId = nodeId; }
+    
+    public LocalDateTime getHeartbeatAt() { return heartbeatAt; }
+    public void setHeartbeatAt(LocalDateTime heartbeatAt) { this.heartbeatAt = heartbeatAt; }
+}
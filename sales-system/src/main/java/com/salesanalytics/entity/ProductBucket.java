@@ -0,0 +1,103 @@
+package com.salesanalytics.entity;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+@Entity
+@Table(name = "product_buckets", indexes = {
+    @Index(name = "idx_product_buckets_start", columnList = "granularity, bucket_start")
+})
+@IdClass(ProductBucket.Key.class)
+public class ProductBucket {
+    
+    @Id
+    @Column(name = "product_name")
+    private String productName;
+    
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 8)
+    private BucketGranularity granularity;
+    
+    @Id
+    @Column(name = "bucket_start")
+    private LocalDateTime bucketStart;
+    
+    @Column(nullable = false)
+    private Double revenue;
+    
+    @Column(nullable = false)
+    private Long quantity;
+    
+    @Column(name = "order_count", nullable = false)
+    private Long orderCount;
+    
+    // Constructors
+    public ProductBucket() {}
+    
+    public ProductBucket(String productName, BucketGranularity granularity, LocalDateTime bucketStart,
+                         Double revenue, Long quantity, Long orderCount) {
+        this.productName = productName;
+        this.granularity = granularity;
+        this.bucketStart = bucketStart;
+        this.revenue = revenue;
+        this.quantity = quantity;
+        this.orderCount = orderCount;
+    }
+    
+    // Getters and Setters
+    public String getProductName() { return productName; }
+    public void setProductName(String productName) { this.productName = productName; }
+    
+    public BucketGranularity getGranularity() { return granularity; }
+    public void setGranularity(BucketGranularity granularity) { this.granularity = granularity; }
+    
+    public LocalDateTime getBucketStart() { return bucketStart; }
+    public void setBucketStart(LocalDateTime bucketStart) { this.bucketStart = bucketStart; }
+    
+    public Double getRevenue() { return revenue; }
+    public void setRevenue(Double revenue) { this.revenue = revenue; }
+    
+    public Long getQuantity() { return quantity; }
+    public void setQuantity(Long quantity) { this.quantity = quantity; }
+    
+    public Long getOrderCount() { return orderCount; }
+    public void setOrderCount(Long orderCount) { this.orderCount = orderCount; }
+    
+    public static class Key implements Serializable {
+        private static final long serialVersionUID = 1L;
+        
+        private String productName;
+        private BucketGranularity granularity;
+        private LocalDateTime bucketStart;
+        
+        public Key() {}
+        
+        public Key(String productName, BucketGranularity granularity, LocalDateTime bucketStart) {
+            this.productName = productName;
+            this.granularity = granularity;
+            this.bucketStart = bucketStart;
+        }
+        
+        public String getProductName() { return productName; }
+        public BucketGranularity getGranularity() { return granularity; }
+        public LocalDateTime getBucketStart() { return bucketStart; }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key key)) return false;
+            return Objects.equals(productName, key.productName)
+                && granularity == key.granularity
+                && Objects.equals(bucketStart, key.bucketStart);
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(productName, granularity, bucketStart);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.salesanalytics.entity;
+
+import jakarta.persistence.*;
+
+@Entity
+@Table(name = "product_totals", indexes = {
+    @Index(name = "idx_product_totals_revenue", columnList = "revenue")
+})
+public class ProductTotal {
+    
+    @Id
+    @Column(name = "product_name")
+    private String productName;
+    
+    @Column(nullable = false)
+    private Double revenue;
+    
+    @Column(nullable = false)
+    private Long quantity;
+    
+    @Column(name = "order_count", nullable = false)
+    private Long orderCount;
+    
+    // Constructors
+    public ProductTotal() {}
+    
+    public ProductTotal(String productName, Double revenue, Long quantity, Long orderCount) {
+        this.productName = productName;
+        this.revenue = revenue;
+        this.quantity = quantity;
+        this.orderCount = orderCount;
+    }
+    
+    // Getters and Setters
+    public String getProductName() { return productName; }
+    public void setProductName(String productName) { this.productName = productName; }
+    
+    public Double getRevenue() { return revenue; }
+    public void setRevenue(Double revenue) { this.revenue = revenue; }
+    
+    public Long getQuantity() { return quantity; }
+    public void setQuantity(Long quantity) { this.quantity = quantity; }
+    
+    public Long getOrderCount() { return orderCount; }
+    public void setOrderCount(Long orderCount) { this.orderCount = orderCount; }
+}
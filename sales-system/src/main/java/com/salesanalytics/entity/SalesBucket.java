@@ -0,0 +1,109 @@
+package com.salesanalytics.entity;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Time series rollup keyed by the order's business date ({@link Order#getDate()}),
+ * one row per product, granularity and bucket. Each granularity is its own
+ * partition of the table; finer ones are only kept for recent data.
+ */
+@Entity
+@Table(name = "sales_buckets", indexes = {
+    @Index(name = "idx_sales_buckets_series", columnList = "granularity, bucket_start"),
+    @Index(name = "idx_sales_buckets_product", columnList = "product_name, granularity, bucket_start")
+})
+@IdClass(SalesBucket.Key.class)
+public class SalesBucket {
+    
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 8)
+    private BucketGranularity granularity;
+    
+    @Id
+    @Column(name = "bucket_start")
+    private LocalDateTime bucketStart;
+    
+    @Id
+    @Column(name = "product_name")
+    private String productName;
+    
+    @Column(nullable = false)
+    private Double revenue;
+    
+    @Column(nullable = false)
+    private Long quantity;
+    
+    @Column(name = "order_count", nullable = false)
+    private Long orderCount;
+    
+    // Constructors
+    public SalesBucket() {}
+    
+    public SalesBucket(BucketGranularity granularity, LocalDateTime bucketStart, String productName,
+                       Double revenue, Long quantity, Long orderCount) {
+        this.granularity = granularity;
+        this.bucketStart = bucketStart;
+        this.productName = productName;
+        this.revenue = revenue;
+        this.quantity = quantity;
+        this.orderCount = orderCount;
+    }
+    
+    // Getters and Setters
+    public BucketGranularity getGranularity() { return granularity; }
+    public void setGranularity(BucketGranularity granularity) { this.granularity = granularity; }
+    
+    public LocalDateTime getBucketStart() { return bucketStart; }
+    public void setBucketStart(LocalDateTime bucketStart) { this.bucketStart = bucketStart; }
+    
+    public String getProductName() { return productName; }
+    public void setProductName(String productName) { this.productName = productName; }
+    
+    public Double getRevenue() { return revenue; }
+    public void setRevenue(Double revenue) { this.revenue = revenue; }
+    
+    public Long getQuantity() { return quantity; }
+    public void setQuantity(Long quantity) { this.quantity = quantity; }
+    
+    public Long getOrderCount() { return orderCount; }
+    public void setOrderCount(Long orderCount) { this.orderCount = orderCount; }
+    
+    public static class Key implements Serializable {
+        private static final long serialVersionUID = 1L;
+        
+        private BucketGranularity granularity;
+        private LocalDateTime bucketStart;
+        private String productName;
+        
+        public Key() {}
+        
+        public Key(BucketGranularity granularity, LocalDateTime bucketStart, String productName) {
+            this.granularity = granularity;
+            this.bucketStart = bucketStart;
+            this.productName = productName;
+        }
+        
+        public BucketGranularity getGranularity() { return granularity; }
+        public LocalDateTime getBucketStart() { return bucketStart; }
+        public String getProductName() { return productName; }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key key)) return false;
+            return granularity == key.granularity
+                && Objects.equals(bucketStart, key.bucketStart)
+                && Objects.equals(productName, key.productName);
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(granularity, bucketStart, productName);
+        }
+    }
+}
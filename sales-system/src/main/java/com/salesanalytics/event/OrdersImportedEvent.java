@@ -0,0 +1,8 @@
+package com.salesanalytics.event;
+
+/**
+ * Published once a bulk import has been written. Imports are too large to
+ * carry as individual orders, so projections catch up from the orders table.
+ */
+public record OrdersImportedEvent(int count) {
+}
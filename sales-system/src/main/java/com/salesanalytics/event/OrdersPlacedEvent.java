@@ -0,0 +1,14 @@
+package com.salesanalytics.event;
+
+import com.salesanalytics.dto.OrderResponse;
+import com.salesanalytics.entity.Order;
+
+import java.util.List;
+
+/**
+ * Published by the write side for every accepted order (or batch of orders).
+ * Projections handle it after the transaction commits, so rolled-back orders
+ * never reach the read model. Journaled orders are published on acceptance.
+ */
+public record OrdersPlacedEvent(List<Order> orders, List<OrderResponse> responses) {
+}
@@ -0,0 +1,89 @@
+package com.salesanalytics.ingest;
+
+import com.salesanalytics.repository.OrderRepository;
+import com.salesanalytics.rollup.RollupService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Background writer for the write-behind ingest mode. Drains the order
+ * journal into the database in batches, one transaction per batch, and
+ * only then advances the journal's flushed position. Delivery is
+ * at-least-once: a crash between commit and checkpoint replays that batch.
+ */
+@Component
+@ConditionalOnProperty(name = "orders.ingest.mode", havingValue = "journal")
+public class JournalFlusher {
+
+    private static final Logger logger = LoggerFactory.getLogger(JournalFlusher.class);
+
+    private final OrderJournal journal;
+    private final OrderRepository orderRepository;
+    private final RollupService rollupService;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    // Held while a batch is written and checkpointed
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public JournalFlusher(
+            OrderJournal journal,
+            OrderRepository orderRepository,
+            RollupService rollupService,
+            PlatformTransactionManager transactionManager,
+            @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:500}") int batchSize) {
+        this.journal = journal;
+        this.orderRepository = orderRepository;
+        this.rollupService = rollupService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${orders.journal.flush-interval-ms:200}")
+    public void flush() {
+        try {
+            while (!journal.isEmpty()) {
+                flushLock.lock();
+                try {
+                    OrderJournal.Batch batch = journal.read(batchSize);
+                    if (batch.orders().isEmpty()) {
+                        return;
+                    }
+                    transactionTemplate.executeWithoutResult(status ->
+                        orderRepository.saveAll(batch.orders()).forEach(rollupService::record));
+                    journal.markFlushed(batch);
+                } finally {
+                    flushLock.unlock();
+                }
+            }
+        } catch (Exception e) {
+            logger.error("Failed to flush order journal, will retry", e);
+        }
+    }
+
+    /**
+     * Runs the action between batches, so every journaled order is either in
+     * the database or still unflushed in the journal for its whole duration.
+     */
+    public void runPaused(Runnable action) {
+        flushLock.lock();
+        try {
+            action.run();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void drain() {
+        flush();
+    }
+}
@@ -0,0 +1,280 @@
+package com.salesanalytics.ingest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.salesanalytics.analytics.AnalyticsEngine;
+import com.salesanalytics.entity.Order;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * Memory-mapped journal used by the write-behind ingest mode, written as a
+ * ring buffer. Orders are acknowledged once they are in the journal;
+ * {@link JournalFlusher} drains them into the database and advances the
+ * flushed position, which frees that space for new entries.
+ *
+ * Layout: a header of {magic, sequence of the entry at the flushed position,
+ * flushed position} followed by entries of {length, crc32, sequence, json
+ * payload}. Sequences increase by one per entry, so bytes left over from an
+ * earlier lap never read as a live entry. When an entry does not fit before
+ * the end of the file a wrap marker (length -1) is written and the entry
+ * goes at the start; with less than an entry header left the wrap is implied.
+ */
+@Component
+@ConditionalOnProperty(name = "orders.ingest.mode", havingValue = "journal")
+public class OrderJournal {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderJournal.class);
+
+    private static final int MAGIC = 0x4F524A32;
+    private static final int HEADER_SIZE = 64;
+    private static final int SEQUENCE_OFFSET = 4;
+    private static final int FLUSHED_OFFSET = 12;
+    private static final int ENTRY_HEADER_SIZE = 16;
+    private static final int WRAP = -1;
+
+    private final Path path;
+    private final int capacity;
+    private final boolean fsync;
+    private final ObjectMapper objectMapper;
+    private final AnalyticsEngine analyticsEngine;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private long nextSequence;
+    private volatile int writePosition;
+    private volatile int flushedPosition;
+    private volatile long flushedSequence;
+
+    public OrderJournal(
+            @Value("${orders.journal.path:data/orders.journal}") Path path,
+            @Value("${orders.journal.capacity-mb:64}") int capacityMb,
+            @Value("${orders.journal.fsync:false}") boolean fsync,
+            ObjectMapper objectMapper,
+            AnalyticsEngine analyticsEngine) {
+        long capacity = capacityMb * 1024L * 1024L;
+        if (capacityMb <= 0 || capacity > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(
+                "orders.journal.capacity-mb must be between 1 and 2047, got " + capacityMb);
+        }
+        this.path = path;
+        this.capacity = (int) capacity;
+        this.fsync = fsync;
+        this.objectMapper = objectMapper;
+        this.analyticsEngine = analyticsEngine;
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+
+        if (buffer.getInt(0) != MAGIC) {
+            buffer.putInt(0, MAGIC);
+            buffer.putLong(SEQUENCE_OFFSET, 1L);
+            buffer.putInt(FLUSHED_OFFSET, HEADER_SIZE);
+            buffer.force();
+        }
+        flushedSequence = buffer.getLong(SEQUENCE_OFFSET);
+        flushedPosition = buffer.getInt(FLUSHED_OFFSET);
+
+        // Replay: everything valid past the flushed position was acknowledged but never written
+        List<Order> pending = new ArrayList<>();
+        int position = flushedPosition;
+        long sequence = flushedSequence;
+        while (true) {
+            int entry = skipWrap(position, sequence);
+            Order order = decodeAt(entry, sequence);
+            if (order == null) {
+                break;
+            }
+            pending.add(order);
+            position = entry + ENTRY_HEADER_SIZE + buffer.getInt(entry);
+            sequence++;
+        }
+        writePosition = position;
+        nextSequence = sequence;
+
+        pending.forEach(analyticsEngine::record);
+        logger.info("Opened order journal {} with {} unflushed orders", path, pending.size());
+    }
+
+    /**
+     * Appends an order; returns false when the journal has no room left so the
+     * caller can fall back to a synchronous write.
+     */
+    public boolean append(Order order) {
+        if (order.getCreatedAt() == null) {
+            order.setCreatedAt(LocalDateTime.now());
+        }
+        byte[] payload = encode(order);
+        int size = ENTRY_HEADER_SIZE + payload.length;
+
+        lock.lock();
+        try {
+            int position = writePosition;
+            int flushed = flushedPosition;
+            // The write position may only reach the flushed position when the journal is empty
+            if (position >= flushed) {
+                if (position + size > capacity) {
+                    if (HEADER_SIZE + size >= flushed) {
+                        return false;
+                    }
+                    if (position + ENTRY_HEADER_SIZE <= capacity) {
+                        buffer.putLong(position + 8, nextSequence);
+                        buffer.putInt(position, WRAP);
+                    }
+                    position = HEADER_SIZE;
+                }
+            } else if (position + size >= flushed) {
+                return false;
+            }
+
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+
+            buffer.put(position + ENTRY_HEADER_SIZE, payload);
+            buffer.putLong(position + 8, nextSequence);
+            buffer.putInt(position + 4, (int) crc.getValue());
+            buffer.putInt(position, payload.length);
+            if (fsync) {
+                buffer.force(position, size);
+            }
+            nextSequence++;
+            writePosition = position + size;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Reads up to {@code limit} unflushed orders, oldest first. */
+    public Batch read(int limit) {
+        List<Order> orders = new ArrayList<>();
+        int position = flushedPosition;
+        long sequence = flushedSequence;
+        int end = writePosition;
+        while (position != end && orders.size() < limit) {
+            int entry = skipWrap(position, sequence);
+            Order order = decodeAt(entry, sequence);
+            if (order == null) {
+                break;
+            }
+            orders.add(order);
+            position = entry + ENTRY_HEADER_SIZE + buffer.getInt(entry);
+            sequence++;
+        }
+        return new Batch(orders, position, sequence);
+    }
+
+    /** Marks the orders of a batch, and everything before them, as written to the database. */
+    public void markFlushed(Batch batch) {
+        lock.lock();
+        try {
+            flushedSequence = batch.endSequence();
+            flushedPosition = batch.endPosition();
+            buffer.putLong(SEQUENCE_OFFSET, batch.endSequence());
+            buffer.putInt(FLUSHED_OFFSET, batch.endPosition());
+            buffer.force(0, HEADER_SIZE);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean isEmpty() {
+        return flushedPosition == writePosition;
+    }
+
+    /** Bytes acknowledged but not yet written to the database. */
+    public int getPendingBytes() {
+        int written = writePosition;
+        int flushed = flushedPosition;
+        return written >= flushed ? written - flushed : (capacity - flushed) + (written - HEADER_SIZE);
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+
+    // Follows a wrap marker (or an implied wrap at the end of the file) back to the first entry
+    private int skipWrap(int position, long sequence) {
+        if (position + ENTRY_HEADER_SIZE > capacity) {
+            return HEADER_SIZE;
+        }
+        if (buffer.getInt(position) == WRAP && buffer.getLong(position + 8) == sequence) {
+            return HEADER_SIZE;
+        }
+        return position;
+    }
+
+    private Order decodeAt(int position, long sequence) {
+        if (position + ENTRY_HEADER_SIZE > capacity) {
+            return null;
+        }
+        int length = buffer.getInt(position);
+        if (length <= 0 || position + ENTRY_HEADER_SIZE + length > capacity
+                || buffer.getLong(position + 8) != sequence) {
+            return null;
+        }
+
+        byte[] payload = new byte[length];
+        buffer.get(position + ENTRY_HEADER_SIZE, payload);
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        if ((int) crc.getValue() != buffer.getInt(position + 4)) {
+            return null;
+        }
+
+        try {
+            JournalEntry entry = objectMapper.readValue(payload, JournalEntry.class);
+            Order order = new Order(entry.productName(), entry.quantity(), entry.price(), entry.date());
+            order.setCreatedAt(entry.createdAt());
+            return order;
+        } catch (IOException e) {
+            logger.warn("Skipping unreadable journal entry at {}: {}", position, e.getMessage());
+            return null;
+        }
+    }
+
+    private byte[] encode(Order order) {
+        try {
+            return objectMapper.writeValueAsBytes(new JournalEntry(
+                order.getProductName(),
+                order.getQuantity(),
+                order.getPrice(),
+                order.getDate(),
+                order.getCreatedAt()
+            ));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public record Batch(List<Order> orders, int endPosition, long endSequence) {}
+
+    record JournalEntry(String productName, Integer quantity, Double price,
+                        LocalDateTime date, LocalDateTime createdAt) {}
+}
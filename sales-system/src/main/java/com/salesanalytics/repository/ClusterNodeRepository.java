@@ -0,0 +1,25 @@
+package com.salesanalytics.repository;
+
+import com.salesanalytics.entity.ClusterNode;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ClusterNodeRepository extends JpaRepository<ClusterNode, String> {
+    
+    @Transactional(readOnly = true)
+    @Query("SELECT n.nodeId FROM ClusterNode n WHERE n.nodeId <> :nodeId AND n.heartbeatAt > :since")
+    List<String> findOtherLiveNodeIds(@Param("nodeId") String nodeId, @Param("since") LocalDateTime since);
+    
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM ClusterNode n WHERE n.heartbeatAt <= :before")
+    int deleteExpired(@Param("before") LocalDateTime before);
+}
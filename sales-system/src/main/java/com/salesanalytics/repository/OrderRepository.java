@@ -1,33 +1,72 @@
 package com.salesanalytics.repository;
 
 import com.salesanalytics.entity.Order;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+// Query methods run in read-only transactions so they can be routed to a read replica
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
     
-    @Query("SELECT SUM(o.quantity * o.price) FROM Order o")
-    Double getTotalRevenue();
-    
+    @Transactional(readOnly = true)
     @Query("SELECT COUNT(o) FROM Order o")
     Integer getTotalOrderCount();
     
-    @Query("SELECT o FROM Order o ORDER BY o.createdAt DESC")
-    List<Order> findRecentOrders();
+    @Transactional(readOnly = true)
+    @QueryHints(@QueryHint(name = HINT_READ_ONLY, value = "true"))
+    @Query("SELECT o FROM Order o ORDER BY o.createdAt DESC, o.id DESC")
+    List<Order> findRecentOrders(Pageable pageable);
+    
+    // Keyset continuation of findRecentOrders: the rows after (createdAt, id) in the same order.
+    // Rows without a createdAt sort last (as NULLs do descending in MySQL and SQLite)
+    @Transactional(readOnly = true)
+    @QueryHints(@QueryHint(name = HINT_READ_ONLY, value = "true"))
+    @Query("SELECT o FROM Order o WHERE o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.id < :id) " +
+           "OR o.createdAt IS NULL ORDER BY o.createdAt DESC, o.id DESC")
+    List<Order> findOrdersBefore(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+    
+    // Keyset continuation once the cursor is within the rows without a createdAt
+    @Transactional(readOnly = true)
+    @QueryHints(@QueryHint(name = HINT_READ_ONLY, value = "true"))
+    @Query("SELECT o FROM Order o WHERE o.createdAt IS NULL AND o.id < :id ORDER BY o.id DESC")
+    List<Order> findOrdersWithoutCreatedAtBefore(@Param("id") Long id, Pageable pageable);
+    
+    @Transactional(readOnly = true)
+    @Query("SELECT o.createdAt, o.quantity * o.price FROM Order o WHERE o.createdAt >= :since")
+    List<Object[]> getRevenueTimelineSince(@Param("since") LocalDateTime since);
     
-    @Query("SELECT COUNT(o) FROM Order o WHERE o.createdAt >= :since")
-    Integer countOrdersSince(@Param("since") LocalDateTime since);
+    @Transactional(readOnly = true)
+    @QueryHints({
+        @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT o.productName, o.createdAt, o.date, o.quantity, o.quantity * o.price FROM Order o " +
+           "WHERE o.id <= :maxId")
+    Stream<Object[]> streamRollupRows(@Param("maxId") long maxId);
     
-    @Query("SELECT o.productName, SUM(o.quantity * o.price) as totalSales, SUM(o.quantity) as totalQuantity " +
-           "FROM Order o GROUP BY o.productName ORDER BY totalSales DESC")
-    List<Object[]> getTopProductsByRevenue();
+    @Transactional(readOnly = true)
+    @Query("SELECT MAX(o.id) FROM Order o")
+    Long getMaxId();
     
-    @Query("SELECT SUM(o.quantity * o.price) FROM Order o WHERE o.createdAt >= :since")
-    Double getRevenueSince(@Param("since") LocalDateTime since);
-}
\ No newline at end of file
+    // Moves the orders_seq generator one allocation block (50) past the highest id when it has fallen
+    // behind, e.g. on a database whose ids came from the generator used before orders_seq existed
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE orders_seq SET next_val = (SELECT COALESCE(MAX(id), 0) + 51 FROM orders) " +
+                   "WHERE next_val <= (SELECT COALESCE(MAX(id), 0) FROM orders)", nativeQuery = true)
+    int advanceIdSequencePastExistingIds();
+}
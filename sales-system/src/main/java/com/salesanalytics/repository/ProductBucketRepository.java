@@ -0,0 +1,23 @@
+package com.salesanalytics.repository;
+
+import com.salesanalytics.entity.BucketGranularity;
+import com.salesanalytics.entity.ProductBucket;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface ProductBucketRepository extends JpaRepository<ProductBucket, ProductBucket.Key> {
+    
+    @Modifying
+    @Query("UPDATE ProductBucket b SET b.revenue = b.revenue + :revenue, b.quantity = b.quantity + :quantity, " +
+           "b.orderCount = b.orderCount + :orders WHERE b.productName = :productName " +
+           "AND b.granularity = :granularity AND b.bucketStart = :bucketStart")
+    int increment(@Param("productName") String productName, @Param("granularity") BucketGranularity granularity,
+                  @Param("bucketStart") LocalDateTime bucketStart, @Param("revenue") double revenue,
+                  @Param("quantity") long quantity, @Param("orders") long orders);
+}
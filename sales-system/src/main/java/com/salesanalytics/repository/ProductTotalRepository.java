@@ -0,0 +1,21 @@
+package com.salesanalytics.repository;
+
+import com.salesanalytics.entity.ProductTotal;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ProductTotalRepository extends JpaRepository<ProductTotal, String> {
+    
+    @Query("SELECT SUM(p.orderCount) FROM ProductTotal p")
+    Long getTotalOrderCount();
+    
+    @Modifying
+    @Query("UPDATE ProductTotal p SET p.revenue = p.revenue + :revenue, p.quantity = p.quantity + :quantity, " +
+           "p.orderCount = p.orderCount + :orders WHERE p.productName = :productName")
+    int increment(@Param("productName") String productName, @Param("revenue") double revenue,
+                  @Param("quantity") long quantity, @Param("orders") long orders);
+}
@@ -0,0 +1,49 @@
+package com.salesanalytics.repository;
+
+import com.salesanalytics.entity.BucketGranularity;
+import com.salesanalytics.entity.SalesBucket;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface SalesBucketRepository extends JpaRepository<SalesBucket, SalesBucket.Key> {
+    
+    // Rows: bucketStart, revenue, quantity, orderCount
+    @Transactional(readOnly = true)
+    @Query("SELECT b.bucketStart, SUM(b.revenue), SUM(b.quantity), SUM(b.orderCount) FROM SalesBucket b " +
+           "WHERE b.granularity = :granularity AND b.bucketStart >= :from AND b.bucketStart < :to " +
+           "GROUP BY b.bucketStart ORDER BY b.bucketStart")
+    List<Object[]> getSeries(@Param("granularity") BucketGranularity granularity,
+                             @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+    
+    @Transactional(readOnly = true)
+    @Query("SELECT b.bucketStart, b.revenue, b.quantity, b.orderCount FROM SalesBucket b " +
+           "WHERE b.productName = :productName AND b.granularity = :granularity " +
+           "AND b.bucketStart >= :from AND b.bucketStart < :to ORDER BY b.bucketStart")
+    List<Object[]> getProductSeries(@Param("productName") String productName,
+                                    @Param("granularity") BucketGranularity granularity,
+                                    @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+    
+    @Transactional(readOnly = true)
+    @Query("SELECT SUM(b.orderCount) FROM SalesBucket b WHERE b.granularity = :granularity")
+    Long getTotalOrderCount(@Param("granularity") BucketGranularity granularity);
+    
+    @Modifying
+    @Query("UPDATE SalesBucket b SET b.revenue = b.revenue + :revenue, b.quantity = b.quantity + :quantity, " +
+           "b.orderCount = b.orderCount + :orders WHERE b.granularity = :granularity " +
+           "AND b.bucketStart = :bucketStart AND b.productName = :productName")
+    int increment(@Param("granularity") BucketGranularity granularity, @Param("bucketStart") LocalDateTime bucketStart,
+                  @Param("productName") String productName, @Param("revenue") double revenue,
+                  @Param("quantity") long quantity, @Param("orders") long orders);
+    
+    @Modifying
+    @Query("DELETE FROM SalesBucket b WHERE b.granularity = :granularity AND b.bucketStart < :before")
+    int deleteOlderThan(@Param("granularity") BucketGranularity granularity, @Param("before") LocalDateTime before);
+}
@@ -0,0 +1,72 @@
+package com.salesanalytics.rollup;
+
+import com.salesanalytics.entity.BucketGranularity;
+import com.salesanalytics.entity.ProductBucket;
+import com.salesanalytics.entity.SalesBucket;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-product, per-bucket and per-series deltas accumulated between two rollup flushes.
+ */
+class RollupBatch {
+
+    private static final BucketGranularity[] PRODUCT_GRANULARITIES = {BucketGranularity.HOUR, BucketGranularity.DAY};
+
+    final Map<String, Delta> totals = new ConcurrentHashMap<>();
+    final Map<ProductBucket.Key, Delta> buckets = new ConcurrentHashMap<>();
+    final Map<SalesBucket.Key, Delta> series = new ConcurrentHashMap<>();
+
+    // Business dates before these are only kept at coarser granularities
+    private final Map<BucketGranularity, LocalDateTime> seriesCutoffs;
+
+    RollupBatch(Map<BucketGranularity, LocalDateTime> seriesCutoffs) {
+        this.seriesCutoffs = seriesCutoffs;
+    }
+
+    void add(String productName, LocalDateTime createdAt, LocalDateTime date, long quantity, double revenue) {
+        totals.computeIfAbsent(productName, name -> new Delta()).add(revenue, quantity, 1);
+        for (BucketGranularity granularity : PRODUCT_GRANULARITIES) {
+            ProductBucket.Key key = new ProductBucket.Key(productName, granularity, granularity.bucketStart(createdAt));
+            buckets.computeIfAbsent(key, k -> new Delta()).add(revenue, quantity, 1);
+        }
+        for (BucketGranularity granularity : BucketGranularity.values()) {
+            LocalDateTime cutoff = seriesCutoffs.get(granularity);
+            if (cutoff != null && date.isBefore(cutoff)) {
+                continue;
+            }
+            SalesBucket.Key key = new SalesBucket.Key(granularity, granularity.bucketStart(date), productName);
+            series.computeIfAbsent(key, k -> new Delta()).add(revenue, quantity, 1);
+        }
+    }
+
+    void addAll(RollupBatch other) {
+        other.totals.forEach((name, delta) -> totals.computeIfAbsent(name, n -> new Delta()).add(delta));
+        other.buckets.forEach((key, delta) -> buckets.computeIfAbsent(key, k -> new Delta()).add(delta));
+        other.series.forEach((key, delta) -> series.computeIfAbsent(key, k -> new Delta()).add(delta));
+    }
+
+    boolean isEmpty() {
+        return totals.isEmpty();
+    }
+
+    static final class Delta {
+        final DoubleAdder revenue = new DoubleAdder();
+        final LongAdder quantity = new LongAdder();
+        final LongAdder orders = new LongAdder();
+
+        void add(double revenue, long quantity, long orders) {
+            this.revenue.add(revenue);
+            this.quantity.add(quantity);
+            this.orders.add(orders);
+        }
+
+        void add(Delta other) {
+            add(other.revenue.sum(), other.quantity.sum(), other.orders.sum());
+        }
+    }
+}
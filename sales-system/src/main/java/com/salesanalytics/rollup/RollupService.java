@@ -0,0 +1,408 @@
+package com.salesanalytics.rollup;
+
+import com.salesanalytics.entity.BucketGranularity;
+import com.salesanalytics.entity.Order;
+import com.salesanalytics.entity.ProductBucket;
+import com.salesanalytics.entity.ProductTotal;
+import com.salesanalytics.entity.SalesBucket;
+import com.salesanalytics.repository.OrderRepository;
+import com.salesanalytics.repository.ProductBucketRepository;
+import com.salesanalytics.repository.ProductTotalRepository;
+import com.salesanalytics.repository.SalesBucketRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Maintains the product_totals, product_buckets and sales_buckets rollup tables.
+ *
+ * Orders are folded into an in-memory delta once their transaction commits,
+ * and a single scheduled writer applies the accumulated deltas as one
+ * increment (or insert) per product and bucket. Reads therefore scale with
+ * the number of products and buckets, and concurrent inserts never contend
+ * on the same rollup rows. {@link #rebuild()} recomputes everything from the
+ * raw orders table and runs on a schedule and whenever the rollups are found
+ * out of step with the orders table at startup.
+ *
+ * sales_buckets holds the revenue / quantity / order count series by business
+ * date at minute, hour and day granularity. Minute and hour buckets are only
+ * kept for the configured retention; older data stays available per day.
+ */
+@Service
+public class RollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RollupService.class);
+
+    private final OrderRepository orderRepository;
+    private final ProductTotalRepository productTotalRepository;
+    private final ProductBucketRepository productBucketRepository;
+    private final SalesBucketRepository salesBucketRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTemplate;
+    private final boolean rebuildOnStartup;
+    private final Map<BucketGranularity, Duration> seriesRetention = new EnumMap<>(BucketGranularity.class);
+
+    private final ReentrantReadWriteLock pendingLock = new ReentrantReadWriteLock();
+    private final ReentrantLock writerLock = new ReentrantLock();
+    private RollupBatch pending;
+    // Orders committed while a rebuild runs, or null; guarded by pendingLock
+    private Queue<Order> rebuildCapture;
+
+    public RollupService(
+            OrderRepository orderRepository,
+            ProductTotalRepository productTotalRepository,
+            ProductBucketRepository productBucketRepository,
+            SalesBucketRepository salesBucketRepository,
+            EntityManager entityManager,
+            PlatformTransactionManager transactionManager,
+            @Value("${rollups.rebuild-on-startup:false}") boolean rebuildOnStartup,
+            @Value("${rollups.series.minute-retention:7d}") Duration minuteRetention,
+            @Value("${rollups.series.hour-retention:90d}") Duration hourRetention) {
+        this.orderRepository = orderRepository;
+        this.productTotalRepository = productTotalRepository;
+        this.productBucketRepository = productBucketRepository;
+        this.salesBucketRepository = salesBucketRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTemplate.setReadOnly(true);
+        this.rebuildOnStartup = rebuildOnStartup;
+        this.seriesRetention.put(BucketGranularity.MINUTE, minuteRetention);
+        this.seriesRetention.put(BucketGranularity.HOUR, hourRetention);
+        this.pending = newBatch(seriesRetention);
+    }
+
+    @PostConstruct
+    public void verify() {
+        Integer orders = orderRepository.getTotalOrderCount();
+        Long rolledUp = productTotalRepository.getTotalOrderCount();
+        Long inSeries = salesBucketRepository.getTotalOrderCount(BucketGranularity.DAY);
+        long expected = orders == null ? 0 : orders;
+        long actual = rolledUp == null ? 0 : rolledUp;
+        long actualSeries = inSeries == null ? 0 : inSeries;
+
+        if (rebuildOnStartup || expected != actual || expected != actualSeries) {
+            logger.info("Rebuilding rollups ({} orders, {} rolled up, {} in daily series)",
+                expected, actual, actualSeries);
+            rebuild();
+        }
+    }
+
+    /**
+     * Folds a persisted order into the rollups. Inside a transaction the delta
+     * is held back until commit, so rolled-back orders never reach the tables.
+     * It is merged into the pending deltas before any after-commit listener
+     * runs, so a listener that flushes sees the transaction's orders.
+     */
+    public void record(Order order) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            addPending(order);
+            return;
+        }
+
+        LocalBatch local = (LocalBatch) TransactionSynchronizationManager.getResource(this);
+        if (local == null) {
+            LocalBatch batch = new LocalBatch(newBatch(seriesRetention), new ArrayList<>());
+            TransactionSynchronizationManager.bindResource(this, batch);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public int getOrder() {
+                    return Ordered.HIGHEST_PRECEDENCE;
+                }
+
+                @Override
+                public void afterCommit() {
+                    merge(batch.deltas(), batch.orders());
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(RollupService.this);
+                }
+            });
+            local = batch;
+        }
+        local.deltas().add(order.getProductName(), order.getCreatedAt(), order.getDate(),
+            order.getQuantity(), order.getTotal());
+        local.orders().add(order);
+    }
+
+    public List<ProductTotal> getProductTotals() {
+        return productTotalRepository.findAll();
+    }
+
+    /**
+     * Revenue, quantity and order count per bucket of the business date in
+     * [from, to), for all products or a single one. Rows hold bucketStart,
+     * revenue, quantity and orderCount; empty buckets are omitted.
+     */
+    public List<Object[]> getSeries(BucketGranularity granularity, LocalDateTime from, LocalDateTime to,
+                                    String productName) {
+        return productName == null
+            ? salesBucketRepository.getSeries(granularity, from, to)
+            : salesBucketRepository.getProductSeries(productName, granularity, from, to);
+    }
+
+    /** Earliest business date still kept at this granularity, or null when it is kept forever. */
+    public LocalDateTime getSeriesStart(BucketGranularity granularity) {
+        Duration retention = seriesRetention.get(granularity);
+        return retention == null ? null : granularity.bucketStart(LocalDateTime.now().minus(retention));
+    }
+
+    /** Product, bucket and series deltas waiting for the next flush. */
+    public int getPendingDeltaCount() {
+        pendingLock.readLock().lock();
+        try {
+            return pending.totals.size() + pending.buckets.size() + pending.series.size();
+        } finally {
+            pendingLock.readLock().unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${rollups.flush-interval-ms:1000}")
+    public void flush() {
+        writerLock.lock();
+        try {
+            RollupBatch batch = takePending();
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> apply(batch));
+            } catch (RuntimeException e) {
+                logger.error("Failed to flush rollups, will retry", e);
+                merge(batch, List.of());
+            }
+        } finally {
+            writerLock.unlock();
+        }
+    }
+
+    /**
+     * Recomputes the rollups from the orders table. The scan covers orders up
+     * to the highest id at its start; orders committed while it runs are
+     * captured, and those above that id are put back as pending deltas once
+     * the tables are rewritten. Ids come from a pooled sequence, so an order
+     * below the mark that only commits after the scan began is left to the
+     * next rebuild.
+     */
+    @Scheduled(cron = "${rollups.rebuild-cron:0 30 3 * * *}")
+    public void rebuild() {
+        writerLock.lock();
+        try {
+            long started = System.nanoTime();
+            // Deltas of already committed orders are covered by the scan below
+            RollupBatch dropped = startCapture();
+            Long highWaterMark = null;
+            RollupBatch batch = newBatch(seriesRetention);
+            try {
+                long maxId = readOnlyTemplate.execute(status -> {
+                    Long id = orderRepository.getMaxId();
+                    long mark = id == null ? 0 : id;
+                    try (Stream<Object[]> rows = orderRepository.streamRollupRows(mark)) {
+                        rows.forEach(row -> batch.add(
+                            (String) row[0],
+                            (LocalDateTime) row[1],
+                            (LocalDateTime) row[2],
+                            ((Number) row[3]).longValue(),
+                            ((Number) row[4]).doubleValue()));
+                    }
+                    return mark;
+                });
+
+                transactionTemplate.executeWithoutResult(status -> {
+                    salesBucketRepository.deleteAllInBatch();
+                    productBucketRepository.deleteAllInBatch();
+                    productTotalRepository.deleteAllInBatch();
+                    insertAll(batch);
+                });
+                highWaterMark = maxId;
+            } finally {
+                finishCapture(highWaterMark, dropped);
+            }
+
+            logger.info("Rebuilt rollups up to order {} for {} products, {} buckets and {} series buckets in {} ms",
+                highWaterMark, batch.totals.size(), batch.buckets.size(), batch.series.size(),
+                (System.nanoTime() - started) / 1_000_000);
+        } finally {
+            writerLock.unlock();
+        }
+    }
+
+    /** Drops minute and hour series buckets that have aged past their retention. */
+    @Scheduled(cron = "${rollups.series.compact-cron:0 45 3 * * *}")
+    public void compactSeries() {
+        writerLock.lock();
+        try {
+            transactionTemplate.executeWithoutResult(status -> seriesRetention.keySet().forEach(granularity -> {
+                int deleted = salesBucketRepository.deleteOlderThan(granularity, getSeriesStart(granularity));
+                if (deleted > 0) {
+                    logger.info("Compacted {} {} series buckets", deleted, granularity.name().toLowerCase());
+                }
+            }));
+        } finally {
+            writerLock.unlock();
+        }
+    }
+
+    // Static so the constructor can create the first batch without handing out this
+    private static RollupBatch newBatch(Map<BucketGranularity, Duration> seriesRetention) {
+        Map<BucketGranularity, LocalDateTime> cutoffs = new EnumMap<>(BucketGranularity.class);
+        LocalDateTime now = LocalDateTime.now();
+        seriesRetention.forEach((granularity, retention) ->
+            cutoffs.put(granularity, granularity.bucketStart(now.minus(retention))));
+        return new RollupBatch(cutoffs);
+    }
+
+    private void addPending(Order order) {
+        pendingLock.readLock().lock();
+        try {
+            pending.add(order.getProductName(), order.getCreatedAt(), order.getDate(),
+                order.getQuantity(), order.getTotal());
+            if (rebuildCapture != null) {
+                rebuildCapture.add(order);
+            }
+        } finally {
+            pendingLock.readLock().unlock();
+        }
+    }
+
+    private void merge(RollupBatch batch, List<Order> orders) {
+        pendingLock.readLock().lock();
+        try {
+            pending.addAll(batch);
+            if (rebuildCapture != null) {
+                rebuildCapture.addAll(orders);
+            }
+        } finally {
+            pendingLock.readLock().unlock();
+        }
+    }
+
+    // Takes the pending deltas and captures the orders committed from here on
+    private RollupBatch startCapture() {
+        pendingLock.writeLock().lock();
+        try {
+            RollupBatch batch = pending;
+            pending = newBatch(seriesRetention);
+            rebuildCapture = new ConcurrentLinkedQueue<>();
+            return batch;
+        } finally {
+            pendingLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Keeps only the captured orders above the high-water mark as pending.
+     * Without a mark the rebuild failed, so the taken deltas are put back
+     * and everything captured stays pending.
+     */
+    private void finishCapture(Long highWaterMark, RollupBatch taken) {
+        pendingLock.writeLock().lock();
+        try {
+            Queue<Order> captured = rebuildCapture;
+            rebuildCapture = null;
+            if (highWaterMark == null) {
+                pending.addAll(taken);
+                return;
+            }
+            pending = newBatch(seriesRetention);
+            for (Order order : captured) {
+                if (order.getId() > highWaterMark) {
+                    pending.add(order.getProductName(), order.getCreatedAt(), order.getDate(),
+                        order.getQuantity(), order.getTotal());
+                }
+            }
+        } finally {
+            pendingLock.writeLock().unlock();
+        }
+    }
+
+    private RollupBatch takePending() {
+        pendingLock.writeLock().lock();
+        try {
+            RollupBatch batch = pending;
+            pending = newBatch(seriesRetention);
+            return batch;
+        } finally {
+            pendingLock.writeLock().unlock();
+        }
+    }
+
+    private void apply(RollupBatch batch) {
+        List<ProductTotal> newTotals = new ArrayList<>();
+        batch.totals.forEach((name, delta) -> {
+            if (productTotalRepository.increment(name, delta.revenue.sum(), delta.quantity.sum(), delta.orders.sum()) == 0) {
+                newTotals.add(new ProductTotal(name, delta.revenue.sum(), delta.quantity.sum(), delta.orders.sum()));
+            }
+        });
+
+        List<ProductBucket> newBuckets = new ArrayList<>();
+        batch.buckets.forEach((key, delta) -> {
+            if (productBucketRepository.increment(key.getProductName(), key.getGranularity(), key.getBucketStart(),
+                    delta.revenue.sum(), delta.quantity.sum(), delta.orders.sum()) == 0) {
+                newBuckets.add(new ProductBucket(key.getProductName(), key.getGranularity(), key.getBucketStart(),
+                    delta.revenue.sum(), delta.quantity.sum(), delta.orders.sum()));
+            }
+        });
+
+        List<SalesBucket> newSeries = new ArrayList<>();
+        batch.series.forEach((key, delta) -> {
+            if (salesBucketRepository.increment(key.getGranularity(), key.getBucketStart(), key.getProductName(),
+                    delta.revenue.sum(), delta.quantity.sum(), delta.orders.sum()) == 0) {
+                newSeries.add(new SalesBucket(key.getGranularity(), key.getBucketStart(), key.getProductName(),
+                    delta.revenue.sum(), delta.quantity.sum(), delta.orders.sum()));
+            }
+        });
+
+        // Keys are assigned, so persist directly instead of letting saveAll merge (select) each row
+        newTotals.forEach(entityManager::persist);
+        newBuckets.forEach(entityManager::persist);
+        newSeries.forEach(entityManager::persist);
+    }
+
+    private void insertAll(RollupBatch batch) {
+        List<ProductTotal> totals = new ArrayList<>(batch.totals.size());
+        batch.totals.forEach((name, delta) ->
+            totals.add(new ProductTotal(name, delta.revenue.sum(), delta.quantity.sum(), delta.orders.sum())));
+
+        List<ProductBucket> buckets = new ArrayList<>(batch.buckets.size());
+        batch.buckets.forEach((key, delta) ->
+            buckets.add(new ProductBucket(key.getProductName(), key.getGranularity(), key.getBucketStart(),
+                delta.revenue.sum(), delta.quantity.sum(), delta.orders.sum())));
+
+        List<SalesBucket> series = new ArrayList<>(batch.series.size());
+        batch.series.forEach((key, delta) ->
+            series.add(new SalesBucket(key.getGranularity(), key.getBucketStart(), key.getProductName(),
+                delta.revenue.sum(), delta.quantity.sum(), delta.orders.sum())));
+
+        totals.forEach(entityManager::persist);
+        buckets.forEach(entityManager::persist);
+        series.forEach(entityManager::persist);
+    }
+
+    // A transaction's deltas, and its orders in case a rebuild is capturing them
+    private record LocalBatch(RollupBatch deltas, List<Order> orders) {}
+}
@@ -0,0 +1,24 @@
+package com.salesanalytics.rules;
+
+import com.salesanalytics.dto.Analytics;
+import com.salesanalytics.dto.Recommendation;
+
+import java.util.function.Function;
+
+/**
+ * A rule-based recommendation, declared as data.
+ *
+ * @param name       stable key of the rule within the engine
+ * @param trigger    the inputs the rule depends on, reduced to a comparable
+ *                   value (e.g. "which product leads and, when it is above
+ *                   the threshold, the share shown in the text"); the rule
+ *                   is only re-evaluated when it changes, so it must cover
+ *                   everything the recommendation displays
+ * @param recommend  the recommendation for the current analytics, or null
+ *                   when the rule does not apply
+ */
+public record RecommendationRule(
+        String name,
+        Function<Analytics, Object> trigger,
+        Function<Analytics, Recommendation> recommend) {
+}
@@ -0,0 +1,115 @@
+package com.salesanalytics.rules;
+
+import com.salesanalytics.analytics.AnalyticsListener;
+import com.salesanalytics.analytics.AnalyticsReadModel;
+import com.salesanalytics.dto.Analytics;
+import com.salesanalytics.dto.Recommendation;
+import com.salesanalytics.dto.RecommendationDiff;
+import com.salesanalytics.websocket.SalesWebSocketHandler;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps the rule-based recommendation set materialized. Analytics updates
+ * arrive from the broadcast tick (and a slower periodic check, since the
+ * revenue windows move even without new orders); only rules whose trigger
+ * value changed are re-evaluated. Reads return the current immutable list,
+ * and every change is pushed to WebSocket clients as a recommendations_diff
+ * while the rules are what the API serves.
+ */
+@Component
+public class RecommendationRuleEngine implements AnalyticsListener {
+
+    private final List<RecommendationRule> rules;
+    private final AnalyticsReadModel readModel;
+    private final SalesWebSocketHandler webSocketHandler;
+    private final boolean publishDiffs;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<String, Object> triggers = new HashMap<>();
+    private final Map<String, Recommendation> active = new HashMap<>();
+    private volatile List<Recommendation> current = List.of();
+
+    public RecommendationRuleEngine(
+            List<RecommendationRule> rules,
+            AnalyticsReadModel readModel,
+            SalesWebSocketHandler webSocketHandler,
+            @Value("${ai.recommendations.enabled:true}") boolean aiEnabled) {
+        this.rules = rules;
+        this.readModel = readModel;
+        this.webSocketHandler = webSocketHandler;
+        this.publishDiffs = !aiEnabled;
+    }
+
+    @PostConstruct
+    public void init() {
+        evaluate(readModel.snapshot());
+    }
+
+    public List<Recommendation> getRecommendations() {
+        return current;
+    }
+
+    @Override
+    public void analyticsUpdated(Analytics analytics) {
+        evaluate(analytics);
+    }
+
+    @Scheduled(fixedDelayString = "${recommendations.rules.refresh-ms:5000}")
+    public void refresh() {
+        evaluate(readModel.snapshot());
+    }
+
+    private void evaluate(Analytics analytics) {
+        List<Recommendation> upserted = new ArrayList<>();
+        List<String> removed = new ArrayList<>();
+
+        lock.lock();
+        try {
+            for (RecommendationRule rule : rules) {
+                Object trigger = rule.trigger().apply(analytics);
+                if (triggers.containsKey(rule.name()) && Objects.equals(triggers.get(rule.name()), trigger)) {
+                    continue;
+                }
+                triggers.put(rule.name(), trigger);
+
+                Recommendation next = rule.recommend().apply(analytics);
+                Recommendation previous = next == null ? active.remove(rule.name()) : active.put(rule.name(), next);
+                if (previous != null && (next == null || !previous.getId().equals(next.getId()))) {
+                    removed.add(previous.getId());
+                }
+                if (next != null) {
+                    upserted.add(next);
+                }
+            }
+
+            if (upserted.isEmpty() && removed.isEmpty()) {
+                return;
+            }
+            List<Recommendation> recommendations = new ArrayList<>(active.size());
+            for (RecommendationRule rule : rules) {
+                Recommendation recommendation = active.get(rule.name());
+                if (recommendation != null) {
+                    recommendations.add(recommendation);
+                }
+            }
+            current = List.copyOf(recommendations);
+
+            // Published under the lock so clients apply diffs in evaluation order
+            if (publishDiffs) {
+                webSocketHandler.broadcastRecommendationDiff(new RecommendationDiff(upserted, removed));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+}
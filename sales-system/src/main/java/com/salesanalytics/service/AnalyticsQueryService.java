@@ -0,0 +1,126 @@
+package com.salesanalytics.service;
+
+import com.salesanalytics.analytics.AnalyticsReadModel;
+import com.salesanalytics.dto.Analytics;
+import com.salesanalytics.dto.OrderResponse;
+import com.salesanalytics.dto.RangeAnalytics;
+import com.salesanalytics.dto.TopProduct;
+import com.salesanalytics.entity.BucketGranularity;
+import com.salesanalytics.rollup.RollupService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read side of the order data. Live analytics are answered by the
+ * {@link AnalyticsReadModel} projection without a transaction; historical
+ * ranges come from the sales_buckets rollups in a read-only transaction.
+ */
+@Service
+public class AnalyticsQueryService {
+
+    private final AnalyticsReadModel readModel;
+    private final RollupService rollupService;
+    private final int maxBuckets;
+    private final Timer analyticsTimer;
+    private final Timer rangeTimer;
+
+    public AnalyticsQueryService(
+            AnalyticsReadModel readModel,
+            RollupService rollupService,
+            MeterRegistry meterRegistry,
+            @Value("${analytics.range.max-buckets:10000}") int maxBuckets) {
+        this.readModel = readModel;
+        this.rollupService = rollupService;
+        this.maxBuckets = maxBuckets;
+        this.rangeTimer = Timer.builder("sales.analytics.range")
+            .description("Time to build a historical range series")
+            .register(meterRegistry);
+        this.analyticsTimer = Timer.builder("sales.analytics.snapshot")
+            .description("Time to build an analytics snapshot")
+            .register(meterRegistry);
+    }
+
+    public Analytics getAnalytics() {
+        return analyticsTimer.record(readModel::snapshot);
+    }
+
+    public List<TopProduct> getTopProducts(int limit) {
+        return readModel.getTopProducts(limit);
+    }
+
+    public List<OrderResponse> getRecentOrders() {
+        return readModel.getRecentOrders();
+    }
+
+    /**
+     * Series of the business date in [from, to) at the given granularity,
+     * widened to whole buckets. Throws IllegalArgumentException for an empty
+     * range, too many buckets, or a range older than the granularity's retention.
+     */
+    @Transactional(readOnly = true)
+    public RangeAnalytics getRange(LocalDateTime from, LocalDateTime to, BucketGranularity granularity,
+                                   String product) {
+        LocalDateTime start = granularity.bucketStart(from);
+        LocalDateTime end = granularity.bucketStart(to);
+        if (end.isBefore(to)) {
+            end = granularity.next(end);
+        }
+        if (!start.isBefore(end)) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
+
+        long size = granularity.bucketsBetween(start, end);
+        if (size > maxBuckets) {
+            throw new IllegalArgumentException("Range spans " + size + " " + granularity.name().toLowerCase()
+                + " buckets, at most " + maxBuckets + " are allowed");
+        }
+        LocalDateTime retainedFrom = rollupService.getSeriesStart(granularity);
+        if (retainedFrom != null && start.isBefore(retainedFrom)) {
+            throw new IllegalArgumentException(granularity.name().toLowerCase()
+                + " data is only kept from " + retainedFrom + ", use a coarser granularity");
+        }
+
+        LocalDateTime rangeStart = start;
+        LocalDateTime rangeEnd = end;
+        return rangeTimer.record(() -> buildRange(rangeStart, rangeEnd, (int) size, granularity, product));
+    }
+
+    private RangeAnalytics buildRange(LocalDateTime start, LocalDateTime end, int size,
+                                      BucketGranularity granularity, String product) {
+        List<LocalDateTime> buckets = new ArrayList<>(size);
+        double[] revenue = new double[size];
+        long[] orders = new long[size];
+        long[] quantity = new long[size];
+        for (LocalDateTime bucket = start; bucket.isBefore(end); bucket = granularity.next(bucket)) {
+            buckets.add(bucket);
+        }
+
+        double totalRevenue = 0;
+        long totalOrders = 0;
+        long totalQuantity = 0;
+        // Rows are ordered by bucket start, so walk both sequences together
+        int index = 0;
+        for (Object[] row : rollupService.getSeries(granularity, start, end, product)) {
+            LocalDateTime bucketStart = (LocalDateTime) row[0];
+            while (buckets.get(index).isBefore(bucketStart)) {
+                index++;
+            }
+            revenue[index] = ((Number) row[1]).doubleValue();
+            quantity[index] = ((Number) row[2]).longValue();
+            orders[index] = ((Number) row[3]).longValue();
+            totalRevenue += revenue[index];
+            totalQuantity += quantity[index];
+            totalOrders += orders[index];
+        }
+
+        return new RangeAnalytics(start, end, granularity.name().toLowerCase(), product,
+            buckets, revenue, orders, quantity, totalRevenue, totalOrders, totalQuantity);
+    }
+}
@@ -0,0 +1,290 @@
+package com.salesanalytics.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.salesanalytics.dto.OrderPage;
+import com.salesanalytics.dto.OrderResponse;
+import com.salesanalytics.entity.Order;
+import com.salesanalytics.repository.OrderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Reads orders back from the orders table: keyset-paginated pages for the
+ * API and full exports streamed straight from a forward-only JDBC cursor.
+ * Both run in read-only transactions.
+ *
+ * Pages are ordered newest first on (createdAt, id) and continue from an
+ * opaque cursor holding the last row's key, so every page is an index seek
+ * no matter how deep the client has paged. Rows without a createdAt (only
+ * possible in tables not created from the schema script) come last, by id.
+ */
+@Service
+public class OrderQueryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderQueryService.class);
+
+    private static final String EXPORT_SQL =
+        "SELECT id, product_name, quantity, price, date, created_at FROM orders";
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+
+    public enum ExportFormat { CSV, NDJSON }
+
+    private final OrderRepository orderRepository;
+    private final ObjectMapper objectMapper;
+    private final JdbcTemplate exportTemplate;
+    private final TransactionTemplate readOnlyTemplate;
+    private final int maxPageSize;
+
+    public OrderQueryService(
+            OrderRepository orderRepository,
+            ObjectMapper objectMapper,
+            DataSource dataSource,
+            PlatformTransactionManager transactionManager,
+            @Value("${orders.page.max-size:500}") int maxPageSize,
+            @Value("${orders.export.fetch-size:1000}") int exportFetchSize) {
+        this.orderRepository = orderRepository;
+        this.objectMapper = objectMapper;
+        this.exportTemplate = new JdbcTemplate(dataSource);
+        this.exportTemplate.setFetchSize(exportFetchSize);
+        this.readOnlyTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTemplate.setReadOnly(true);
+        this.maxPageSize = maxPageSize;
+    }
+
+    /**
+     * One page of orders, newest first, continuing after the given cursor
+     * (null for the first page). The next cursor is null on the last page.
+     */
+    @Transactional(readOnly = true)
+    public OrderPage getOrders(String cursor, int limit) {
+        if (limit < 1 || limit > maxPageSize) {
+            throw new IllegalArgumentException("limit must be between 1 and " + maxPageSize);
+        }
+
+        // One extra row tells whether another page follows
+        PageRequest page = PageRequest.of(0, limit + 1);
+        List<Order> orders;
+        if (cursor == null || cursor.isEmpty()) {
+            orders = orderRepository.findRecentOrders(page);
+        } else {
+            Cursor after = Cursor.decode(cursor);
+            orders = after.createdAt() == null
+                ? orderRepository.findOrdersWithoutCreatedAtBefore(after.id(), page)
+                : orderRepository.findOrdersBefore(after.createdAt(), after.id(), page);
+        }
+
+        boolean hasMore = orders.size() > limit;
+        List<OrderResponse> responses = new ArrayList<>(Math.min(orders.size(), limit));
+        for (int i = 0; i < orders.size() && i < limit; i++) {
+            Order order = orders.get(i);
+            responses.add(new OrderResponse(
+                order.getId(),
+                order.getProductName(),
+                order.getQuantity(),
+                order.getPrice(),
+                order.getDate(),
+                order.getCreatedAt()
+            ));
+        }
+
+        String nextCursor = null;
+        if (hasMore) {
+            Order last = orders.get(limit - 1);
+            nextCursor = new Cursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new OrderPage(responses, nextCursor);
+    }
+
+    /**
+     * Writes every order created in [from, to) (either bound may be null) to
+     * the stream. Rows go from the cursor to the output one at a time and are
+     * never mapped to entities, so memory stays constant for any table size.
+     */
+    public long export(ExportFormat format, LocalDateTime from, LocalDateTime to, OutputStream out) throws IOException {
+        StringBuilder sql = new StringBuilder(EXPORT_SQL);
+        List<Object> args = new ArrayList<>(2);
+        if (from != null) {
+            sql.append(" WHERE created_at >= ?");
+            args.add(Timestamp.valueOf(from));
+        }
+        if (to != null) {
+            sql.append(from != null ? " AND" : " WHERE").append(" created_at < ?");
+            args.add(Timestamp.valueOf(to));
+        }
+        sql.append(" ORDER BY created_at, id");
+
+        long started = System.nanoTime();
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        RowWriter rowWriter = format == ExportFormat.CSV ? new CsvRowWriter(writer) : new NdjsonRowWriter(writer);
+        long[] exported = new long[1];
+        try {
+            rowWriter.start();
+            readOnlyTemplate.executeWithoutResult(status ->
+                exportTemplate.query(sql.toString(), rs -> {
+                    try {
+                        rowWriter.write(rs);
+                        exported[0]++;
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }, args.toArray()));
+            rowWriter.finish();
+        } catch (UncheckedIOException e) {
+            // Most likely the client went away
+            throw e.getCause();
+        }
+
+        logger.info("Exported {} orders as {} in {} ms",
+            exported[0], format.name().toLowerCase(), (System.nanoTime() - started) / 1_000_000);
+        return exported[0];
+    }
+
+    private static String formatTimestamp(ResultSet rs, int column) throws SQLException {
+        Timestamp timestamp = rs.getTimestamp(column);
+        return timestamp == null ? null : TIMESTAMP_FORMAT.format(timestamp.toLocalDateTime());
+    }
+
+    private interface RowWriter {
+        void start() throws IOException;
+
+        void write(ResultSet rs) throws SQLException, IOException;
+
+        void finish() throws IOException;
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+        private final Writer writer;
+
+        CsvRowWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void start() throws IOException {
+            writer.write("id,product_name,quantity,price,total,date,created_at\n");
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            int quantity = rs.getInt(3);
+            double price = rs.getDouble(4);
+            writer.write(Long.toString(rs.getLong(1)));
+            writer.write(',');
+            writeField(rs.getString(2));
+            writer.write(',');
+            writer.write(Integer.toString(quantity));
+            writer.write(',');
+            writer.write(Double.toString(price));
+            writer.write(',');
+            writer.write(Double.toString(quantity * price));
+            writer.write(',');
+            writeField(formatTimestamp(rs, 5));
+            writer.write(',');
+            writeField(formatTimestamp(rs, 6));
+            writer.write('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            writer.flush();
+        }
+
+        private void writeField(String value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+    }
+
+    private final class NdjsonRowWriter implements RowWriter {
+        private final JsonGenerator generator;
+
+        NdjsonRowWriter(Writer writer) throws IOException {
+            // One object per line: the newline is written per row instead of the default space separator
+            this.generator = objectMapper.getFactory().createGenerator(writer).setRootValueSeparator(null);
+        }
+
+        @Override
+        public void start() {
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            int quantity = rs.getInt(3);
+            double price = rs.getDouble(4);
+            generator.writeStartObject();
+            generator.writeNumberField("id", rs.getLong(1));
+            generator.writeStringField("productName", rs.getString(2));
+            generator.writeNumberField("quantity", quantity);
+            generator.writeNumberField("price", price);
+            generator.writeNumberField("total", quantity * price);
+            generator.writeStringField("date", formatTimestamp(rs, 5));
+            generator.writeStringField("createdAt", formatTimestamp(rs, 6));
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            generator.flush();
+        }
+    }
+
+    /**
+     * Key of the last row of a page, passed back by the client as an opaque
+     * token. The timestamp part is empty for a row without a createdAt.
+     */
+    private record Cursor(LocalDateTime createdAt, long id) {
+
+        String encode() {
+            String key = (createdAt == null ? "" : TIMESTAMP_FORMAT.format(createdAt)) + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String token) {
+            try {
+                String key = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+                int separator = key.lastIndexOf('|');
+                String createdAt = key.substring(0, separator);
+                return new Cursor(
+                    createdAt.isEmpty() ? null : LocalDateTime.parse(createdAt, TIMESTAMP_FORMAT),
+                    Long.parseLong(key.substring(separator + 1)));
+            } catch (IllegalArgumentException | DateTimeParseException | StringIndexOutOfBoundsException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+    }
+}
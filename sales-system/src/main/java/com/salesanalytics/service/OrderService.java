@@ -2,110 +2,161 @@ package com.salesanalytics.service;
 
 import com.salesanalytics.dto.*;
 import com.salesanalytics.entity.Order;
+import com.salesanalytics.event.OrdersImportedEvent;
+import com.salesanalytics.event.OrdersPlacedEvent;
+import com.salesanalytics.ingest.OrderJournal;
 import com.salesanalytics.repository.OrderRepository;
-import com.salesanalytics.websocket.SalesWebSocketHandler;
+import com.salesanalytics.rollup.RollupService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Write side of the order data. Every accepted order is published as a
+ * domain event; the analytics read model and the WebSocket feed are updated
+ * from those events once the transaction commits (see
+ * {@link AnalyticsQueryService} for the read side).
+ */
 @Service
-@Transactional
 public class OrderService {
     
+    private static final Logger logger = LoggerFactory.getLogger(OrderService.class);
+    
     private final OrderRepository orderRepository;
-    private final SalesWebSocketHandler webSocketHandler;
+    private final RollupService rollupService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
+    private final Optional<OrderJournal> journal;
+    private final int batchSize;
+    private final Timer journaledCreateTimer;
+    private final Timer syncCreateTimer;
     
-    public OrderService(OrderRepository orderRepository, SalesWebSocketHandler webSocketHandler) {
+    public OrderService(OrderRepository orderRepository, RollupService rollupService,
+                        ApplicationEventPublisher eventPublisher, EntityManager entityManager,
+                        Optional<OrderJournal> journal, MeterRegistry meterRegistry,
+                        @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:500}") int batchSize) {
         this.orderRepository = orderRepository;
-        this.webSocketHandler = webSocketHandler;
+        this.rollupService = rollupService;
+        this.eventPublisher = eventPublisher;
+        this.entityManager = entityManager;
+        this.journal = journal;
+        this.batchSize = batchSize;
+        this.journaledCreateTimer = Timer.builder("sales.orders.create")
+            .description("Time to accept a single order")
+            .tag("mode", "journal")
+            .register(meterRegistry);
+        this.syncCreateTimer = Timer.builder("sales.orders.create")
+            .description("Time to accept a single order")
+            .tag("mode", "sync")
+            .register(meterRegistry);
+    }
+    
+    /**
+     * Databases created before ids came from orders_seq have a fresh generator
+     * that would hand out ids already in use, so it is moved past them first.
+     */
+    @PostConstruct
+    public void alignIdSequence() {
+        if (orderRepository.advanceIdSequencePastExistingIds() > 0) {
+            logger.info("Advanced orders_seq past the existing order ids");
+        }
     }
     
+    @Transactional
     public OrderResponse createOrder(OrderRequest orderRequest) {
-        Order order = new Order(
-            orderRequest.getProductName(),
-            orderRequest.getQuantity(),
-            orderRequest.getPrice(),
-            orderRequest.getDate()
-        );
+        long started = System.nanoTime();
+        Order order = convertToEntity(orderRequest);
         
-        Order savedOrder = orderRepository.save(order);
+        // Write-behind mode: acknowledge once journaled, the flusher persists it later
+        Order savedOrder;
+        Timer timer;
+        if (journal.isPresent() && journal.get().append(order)) {
+            savedOrder = order;
+            timer = journaledCreateTimer;
+        } else {
+            savedOrder = orderRepository.save(order);
+            rollupService.record(savedOrder);
+            timer = syncCreateTimer;
+        }
         OrderResponse response = convertToResponse(savedOrder);
         
-        // Send real-time update via WebSocket
-        webSocketHandler.broadcastNewOrder(response);
-        webSocketHandler.broadcastAnalyticsUpdate(getAnalytics());
+        // Projected into the read model and queued for the next broadcast tick after commit
+        eventPublisher.publishEvent(new OrdersPlacedEvent(List.of(savedOrder), List.of(response)));
         
+        timer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
         return response;
     }
     
-    public Analytics getAnalytics() {
-        Double totalRevenue = orderRepository.getTotalRevenue();
-        if (totalRevenue == null) totalRevenue = 0.0;
-        
-        Integer totalOrders = orderRepository.getTotalOrderCount();
-        if (totalOrders == null) totalOrders = 0;
-        
-        List<TopProduct> topProducts = getTopProducts();
-        List<OrderResponse> recentOrders = getRecentOrders();
-        
-        // Calculate revenue change (last minute vs previous minute)
-        LocalDateTime oneMinuteAgo = LocalDateTime.now().minusMinutes(1);
-        LocalDateTime twoMinutesAgo = LocalDateTime.now().minusMinutes(2);
-        
-        Double revenueLastMinute = orderRepository.getRevenueSince(oneMinuteAgo);
-        Double revenuePreviousMinute = orderRepository.getRevenueSince(twoMinutesAgo);
+    @Transactional
+    public List<OrderResponse> createOrders(List<OrderRequest> orderRequests) {
+        List<Order> orders = new ArrayList<>(orderRequests.size());
+        orderRequests.forEach(request -> orders.add(convertToEntity(request)));
         
-        if (revenueLastMinute == null) revenueLastMinute = 0.0;
-        if (revenuePreviousMinute == null) revenuePreviousMinute = 0.0;
-        
-        Double revenueChange = 0.0;
-        if (revenuePreviousMinute > 0) {
-            revenueChange = ((revenueLastMinute - revenuePreviousMinute) / revenuePreviousMinute) * 100;
-        } else if (revenueLastMinute > 0) {
-            revenueChange = 100.0;
+        List<Order> savedOrders = persistBatch(orders);
+        List<OrderResponse> responses = new ArrayList<>(savedOrders.size());
+        for (Order savedOrder : savedOrders) {
+            responses.add(convertToResponse(savedOrder));
         }
         
-        Integer ordersInLastMinute = orderRepository.countOrdersSince(oneMinuteAgo);
-        if (ordersInLastMinute == null) ordersInLastMinute = 0;
+        eventPublisher.publishEvent(new OrdersPlacedEvent(savedOrders, responses));
+        return responses;
+    }
+    
+    /**
+     * Persists a stream of orders in one transaction, flushing a JDBC batch and
+     * clearing the persistence context every batch so memory stays constant.
+     * Imported orders are not echoed as new_order events; the read model is
+     * rebuilt from the orders table once the import has committed.
+     */
+    @Transactional
+    public int importOrders(Iterator<OrderRequest> orderRequests) {
+        int imported = 0;
+        List<Order> chunk = new ArrayList<>(batchSize);
+        while (orderRequests.hasNext()) {
+            chunk.add(convertToEntity(orderRequests.next()));
+            if (chunk.size() == batchSize) {
+                imported += persistBatch(chunk).size();
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            imported += persistBatch(chunk).size();
+        }
         
-        return new Analytics(
-            totalRevenue,
-            totalOrders,
-            topProducts,
-            recentOrders,
-            revenueChange,
-            ordersInLastMinute
-        );
+        if (imported > 0) {
+            eventPublisher.publishEvent(new OrdersImportedEvent(imported));
+        }
+        return imported;
     }
     
-    private List<TopProduct> getTopProducts() {
-        List<Object[]> results = orderRepository.getTopProductsByRevenue();
-        Double totalRevenue = orderRepository.getTotalRevenue();
-        if (totalRevenue == null) totalRevenue = 1.0;
-
-        Double finalTotalRevenue = totalRevenue;
-        return results.stream()
-            .limit(5)
-            .map(result -> {
-                String name = (String) result[0];
-                Double sales = (Double) result[1];
-                Long quantity = (Long) result[2];
-                Double percentage = (sales / finalTotalRevenue) * 100;
-                
-                return new TopProduct(name, sales, quantity.intValue(), percentage);
-            })
-            .collect(Collectors.toList());
+    private List<Order> persistBatch(List<Order> orders) {
+        List<Order> savedOrders = orderRepository.saveAll(orders);
+        orderRepository.flush();
+        entityManager.clear();
+        savedOrders.forEach(rollupService::record);
+        return savedOrders;
     }
     
-    private List<OrderResponse> getRecentOrders() {
-        return orderRepository.findRecentOrders()
-            .stream()
-            .limit(10)
-            .map(this::convertToResponse)
-            .collect(Collectors.toList());
+    private Order convertToEntity(OrderRequest orderRequest) {
+        return new Order(
+            orderRequest.getProductName(),
+            orderRequest.getQuantity(),
+            orderRequest.getPrice(),
+            orderRequest.getDate()
+        );
     }
     
     private OrderResponse convertToResponse(Order order) {
@@ -114,7 +165,8 @@ public class OrderService {
             order.getProductName(),
             order.getQuantity(),
             order.getPrice(),
-            order.getDate()
+            order.getDate(),
+            order.getCreatedAt()
         );
     }
 }
\ No newline at end of file
@@ -1,75 +1,225 @@
 package com.salesanalytics.service;
 
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.salesanalytics.ai.CircuitBreaker;
+import com.salesanalytics.ai.DeepSeekClient;
+import com.salesanalytics.ai.RecommendationStreamParser;
 import com.salesanalytics.dto.Analytics;
 import com.salesanalytics.dto.Recommendation;
 import com.salesanalytics.dto.TopProduct;
+import com.salesanalytics.rules.RecommendationRuleEngine;
+import com.salesanalytics.websocket.SalesWebSocketHandler;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.*;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
+import java.math.BigDecimal;
+import java.math.MathContext;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Service
 public class RecommendationService {
+    private static final Logger logger = LoggerFactory.getLogger(RecommendationService.class);
+
     // Constants
     private static final String AI_FALLBACK_ID = "deepseek-fallback";
-    private static final double HIGH_PERFORMANCE_THRESHOLD = 30.0;
-    private static final double REVENUE_DECLINE_THRESHOLD = 0.0;
-    private static final double REVENUE_SURGE_THRESHOLD = 50.0;
-    private static final String[] WEATHER_CONDITIONS = {"hot", "cold", "rainy", "sunny"};
+    private static final double REVENUE_CHANGE_BAND = 5.0;
+    private static final MathContext REVENUE_PRECISION = new MathContext(2);
 
     // Dependencies
-    private final OrderService orderService;
-    private final RestTemplate restTemplate;
+    private final AnalyticsQueryService analyticsQueryService;
+    private final DeepSeekClient deepSeekClient;
+    private final CircuitBreaker circuitBreaker;
+    private final SalesWebSocketHandler webSocketHandler;
+    private final RecommendationRuleEngine ruleEngine;
     private final ObjectMapper objectMapper;
-    private final Random random;
-    
+
     // Configuration
     private final boolean aiEnabled;
-    private final String apiKey;
-    private final String apiUrl;
-    private final String modelName;
+    private final boolean streaming;
+    private final int timeoutSeconds;
+    private final long cacheTtlNanos;
+
+    // ai.request latency, by outcome
+    private final Timer successTimer;
+    private final Timer unparsedTimer;
+    private final Timer failureTimer;
+
+    // Cache: the latest AI result and the refreshes currently in flight, by fingerprint
+    private final AtomicReference<CachedRecommendations> cache = new AtomicReference<>();
+    private final Map<String, CompletableFuture<List<Recommendation>>> inFlight = new ConcurrentHashMap<>();
 
     @Autowired
     public RecommendationService(
-            OrderService orderService,
-            RestTemplate restTemplate,
+            AnalyticsQueryService analyticsQueryService,
+            DeepSeekClient deepSeekClient,
+            CircuitBreaker circuitBreaker,
+            SalesWebSocketHandler webSocketHandler,
+            RecommendationRuleEngine ruleEngine,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
             @Value("${ai.recommendations.enabled:true}") boolean aiEnabled,
-            @Value("${deepseek.api.key}") String apiKey,
-            @Value("${deepseek.api.url:https://api.deepseek.com/v1/chat/completions}") String apiUrl,
-            @Value("${deepseek.model:deepseek-chat}") String modelName) {
-        this.orderService = orderService;
-        this.restTemplate = restTemplate;
-        this.objectMapper = new ObjectMapper();
-        this.random = new Random();
+            @Value("${ai.recommendations.streaming:false}") boolean streaming,
+            @Value("${deepseek.timeout.seconds:30}") int timeoutSeconds,
+            @Value("${ai.recommendations.cache-ttl-seconds:60}") long cacheTtlSeconds) {
+        this.analyticsQueryService = analyticsQueryService;
+        this.deepSeekClient = deepSeekClient;
+        this.circuitBreaker = circuitBreaker;
+        this.webSocketHandler = webSocketHandler;
+        this.ruleEngine = ruleEngine;
+        this.objectMapper = objectMapper;
         this.aiEnabled = aiEnabled;
-        this.apiKey = apiKey;
-        this.apiUrl = apiUrl;
-        this.modelName = modelName;
+        this.streaming = streaming;
+        this.timeoutSeconds = timeoutSeconds;
+        this.cacheTtlNanos = TimeUnit.SECONDS.toNanos(cacheTtlSeconds);
+        this.successTimer = requestTimer(meterRegistry, streaming, "success");
+        this.unparsedTimer = requestTimer(meterRegistry, streaming, "unparsed");
+        this.failureTimer = requestTimer(meterRegistry, streaming, "failure");
+    }
+
+    private static Timer requestTimer(MeterRegistry meterRegistry, boolean streaming, String outcome) {
+        return Timer.builder("ai.request")
+            .description("LLM call latency by outcome")
+            .tag("mode", streaming ? "stream" : "complete")
+            .tag("outcome", outcome)
+            .register(meterRegistry);
     }
 
     public List<Recommendation> getRecommendations() {
-        Analytics analytics = orderService.getAnalytics();
-        return aiEnabled ? getAIRecommendationsWithFallback(analytics) : getRuleBasedRecommendations(analytics);
+        return aiEnabled ? getCachedAIRecommendations(analyticsQueryService.getAnalytics()) : getRuleBasedRecommendations();
     }
 
-    private List<Recommendation> getAIRecommendationsWithFallback(Analytics analytics) {
+    /* ===================== AI RECOMMENDATION CACHE ===================== */
+
+    /**
+     * Serves AI recommendations from the cache. A fresh entry for the current
+     * fingerprint is returned as-is; anything else is returned stale while a
+     * background refresh runs. Only a cold cache waits for the upstream call,
+     * bounded by the configured timeout, and falls back to the rules on failure.
+     * While the circuit is open, anything but a fresh entry falls back to the rules.
+     */
+    private List<Recommendation> getCachedAIRecommendations(Analytics analytics) {
+        String fingerprint = fingerprint(analytics);
+        CachedRecommendations cached = cache.get();
+        if (cached != null && cached.isFreshFor(fingerprint, cacheTtlNanos)) {
+            return cached.recommendations();
+        }
+        if (!circuitBreaker.isCallPermitted()) {
+            return getRuleBasedRecommendations();
+        }
+        if (cached != null) {
+            // While the fingerprint keeps moving, one background refresh at a time is enough
+            if (inFlight.isEmpty()) {
+                refresh(fingerprint, analytics);
+            }
+            return cached.recommendations();
+        }
+
         try {
-            return getAIRecommendations(analytics);
-        } catch (Exception e) {
-            return getRuleBasedRecommendations(analytics);
+            return refresh(fingerprint, analytics).get(timeoutSeconds, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return getRuleBasedRecommendations();
+        } catch (ExecutionException | TimeoutException e) {
+            return getRuleBasedRecommendations();
+        }
+    }
+
+    // Single-flight: concurrent callers with the same fingerprint share one upstream call
+    private CompletableFuture<List<Recommendation>> refresh(String fingerprint, Analytics analytics) {
+        CompletableFuture<List<Recommendation>> created = new CompletableFuture<>();
+        CompletableFuture<List<Recommendation>> existing = inFlight.putIfAbsent(fingerprint, created);
+        if (existing != null) {
+            return existing;
+        }
+
+        getAIRecommendations(analytics)
+            .orTimeout(timeoutSeconds, TimeUnit.SECONDS)
+            .whenComplete((recommendations, error) -> {
+                inFlight.remove(fingerprint, created);
+                if (error != null) {
+                    logger.warn("AI recommendation refresh failed: {}", error.toString());
+                    created.completeExceptionally(error);
+                } else {
+                    cache.set(new CachedRecommendations(fingerprint, recommendations, System.nanoTime()));
+                    created.complete(recommendations);
+                }
+            });
+        return created;
+    }
+
+    // Coarse on purpose: a trickle of new orders keeps the cached answer, a change
+    // in the product ranking, the revenue trend or the revenue magnitude does not
+    private static String fingerprint(Analytics analytics) {
+        StringBuilder key = new StringBuilder()
+            .append(new BigDecimal(analytics.getTotalRevenue()).round(REVENUE_PRECISION).toPlainString())
+            .append('|')
+            .append(Math.round(analytics.getRevenueChange() / REVENUE_CHANGE_BAND));
+        for (TopProduct product : analytics.getTopProducts()) {
+            key.append('|').append(product.getName()).append(':').append(Math.round(product.getPercentage()));
+        }
+        return key.toString();
+    }
+
+    private record CachedRecommendations(String fingerprint, List<Recommendation> recommendations, long createdAt) {
+
+        boolean isFreshFor(String currentFingerprint, long ttlNanos) {
+            return fingerprint.equals(currentFingerprint) && System.nanoTime() - createdAt < ttlNanos;
         }
     }
 
     /* ===================== AI RECOMMENDATION LOGIC ===================== */
-    private List<Recommendation> getAIRecommendations(Analytics analytics) {
+    private CompletableFuture<List<Recommendation>> getAIRecommendations(Analytics analytics) {
+        validateAIServiceEnabled();
+        if (!circuitBreaker.tryAcquire()) {
+            return CompletableFuture.failedFuture(new IllegalStateException("AI circuit breaker is open"));
+        }
+
         String prompt = createAIPrompt(analytics);
-        String aiResponse = getAIResponse(prompt);
-        return parseAIResponse(aiResponse);
+        long started = System.nanoTime();
+        AtomicLong firstContentAt = new AtomicLong();
+        CompletableFuture<List<Recommendation>> result = streaming
+            ? streamAIRecommendations(prompt, firstContentAt)
+            : deepSeekClient.complete(prompt).thenApply(this::parseAIResponse);
+        return result.whenComplete((recommendations, error) -> {
+            long elapsed = System.nanoTime() - started;
+            if (error != null) {
+                circuitBreaker.onFailure();
+            } else {
+                // A stream is judged on how soon it starts answering, not on how long the answer is
+                long firstContent = firstContentAt.get();
+                circuitBreaker.onSuccess(streaming && firstContent != 0 ? firstContent - started : elapsed);
+            }
+            Timer timer = error != null ? failureTimer : isFallback(recommendations) ? unparsedTimer : successTimer;
+            timer.record(elapsed, TimeUnit.NANOSECONDS);
+        });
+    }
+
+    private static boolean isFallback(List<Recommendation> recommendations) {
+        return recommendations.size() == 1 && AI_FALLBACK_ID.equals(recommendations.get(0).getId());
+    }
+
+    // Each recommendation is pushed to WebSocket clients as soon as its object closes in the stream
+    private CompletableFuture<List<Recommendation>> streamAIRecommendations(String prompt, AtomicLong firstContentAt) {
+        RecommendationStreamParser parser = new RecommendationStreamParser(objectMapper, webSocketHandler::broadcastRecommendation);
+        return deepSeekClient.stream(prompt, content -> {
+                firstContentAt.compareAndSet(0, System.nanoTime());
+                parser.feed(content);
+            })
+            .thenApply(done -> parser.getRecommendations().isEmpty()
+                ? createFallbackRecommendation(parser.getContent())
+                : List.copyOf(parser.getRecommendations()));
     }
 
     private String createAIPrompt(Analytics analytics) {
@@ -88,51 +238,20 @@ public class RecommendationService {
         return prompt.toString();
     }
 
-    private String getAIResponse(String prompt) {
-        validateAIServiceEnabled();
-        HttpEntity<Map<String, Object>> request = createAIRequest(prompt);
-        ResponseEntity<String> response = executeAIRequest(request);
-        validateAIResponse(response);
-        return response.getBody();
-    }
-
-    private HttpEntity<Map<String, Object>> createAIRequest(String prompt) {
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        headers.set("Authorization", "Bearer " + apiKey);
-
-        Map<String, Object> requestBody = new HashMap<>();
-        requestBody.put("model", modelName);
-        requestBody.put("messages", List.of(Map.of("role", "user", "content", prompt)));
-        requestBody.put("temperature", 0.7);
-        requestBody.put("max_tokens", 1000);
-
-        return new HttpEntity<>(requestBody, headers);
-    }
-
-    private ResponseEntity<String> executeAIRequest(HttpEntity<Map<String, Object>> request) {
-        return restTemplate.postForEntity(apiUrl, request, String.class);
-    }
-
-    @SuppressWarnings("unchecked")
+    // The envelope is read as a tree once; the content is fed through the same incremental parser as the stream
     private List<Recommendation> parseAIResponse(String jsonResponse) {
         try {
-            Map<String, Object> responseMap = objectMapper.readValue(jsonResponse, 
-                new TypeReference<Map<String, Object>>() {});
-            
-            String content = extractContentFromResponse(responseMap);
-            return objectMapper.readValue(content, new TypeReference<List<Recommendation>>() {});
+            String content = objectMapper.readTree(jsonResponse).at("/choices/0/message/content").asText();
+            RecommendationStreamParser parser = new RecommendationStreamParser(objectMapper, recommendation -> {});
+            parser.feed(content);
+            return parser.getRecommendations().isEmpty()
+                ? createFallbackRecommendation(jsonResponse)
+                : parser.getRecommendations();
         } catch (Exception e) {
             return createFallbackRecommendation(jsonResponse);
         }
     }
 
-    private String extractContentFromResponse(Map<String, Object> responseMap) {
-        List<Map<String, Object>> choices = (List<Map<String, Object>>) responseMap.get("choices");
-        Map<String, Object> message = (Map<String, Object>) choices.get(0).get("message");
-        return (String) message.get("content");
-    }
-
     private List<Recommendation> createFallbackRecommendation(String jsonResponse) {
         return List.of(new Recommendation(
             AI_FALLBACK_ID,
@@ -145,157 +264,8 @@ public class RecommendationService {
     }
 
     /* ===================== RULE-BASED RECOMMENDATION LOGIC ===================== */
-    private List<Recommendation> getRuleBasedRecommendations(Analytics analytics) {
-        List<Recommendation> recommendations = new ArrayList<>();
-        recommendations.addAll(generateProductRecommendations(analytics.getTopProducts()));
-        recommendations.addAll(generateRevenueRecommendations(analytics));
-        recommendations.addAll(generateSeasonalRecommendations());
-        return recommendations;
-    }
-
-    private List<Recommendation> generateProductRecommendations(List<TopProduct> topProducts) {
-        List<Recommendation> recommendations = new ArrayList<>();
-        
-        if (topProducts.isEmpty()) {
-            return recommendations;
-        }
-
-        TopProduct topProduct = topProducts.get(0);
-        if (topProduct.getPercentage() > HIGH_PERFORMANCE_THRESHOLD) {
-            recommendations.add(createTopProductPromotion(topProduct));
-        }
-
-        if (topProducts.size() > 1) {
-            recommendations.add(createProductBundle(topProduct, topProducts.get(1)));
-        }
-
-        return recommendations;
-    }
-
-    private Recommendation createTopProductPromotion(TopProduct product) {
-        return new Recommendation(
-            "prod-promo-" + product.getName(),
-            "Promote " + product.getName(),
-            String.format("%s is performing well with %.1f%% of revenue", 
-                product.getName(), product.getPercentage()),
-            "promotion",
-            "high",
-            "Increase sales of top product"
-        );
-    }
-
-    private Recommendation createProductBundle(TopProduct product1, TopProduct product2) {
-        return new Recommendation(
-            "bundle-" + product1.getName() + "-" + product2.getName(),
-            "Bundle Opportunity",
-            String.format("Create a bundle offer combining %s and %s", 
-                product1.getName(), product2.getName()),
-            "pricing",
-            "medium",
-            "Increase average order value"
-        );
-    }
-
-    private List<Recommendation> generateRevenueRecommendations(Analytics analytics) {
-        List<Recommendation> recommendations = new ArrayList<>();
-        
-        if (analytics.getRevenueChange() < REVENUE_DECLINE_THRESHOLD) {
-            recommendations.add(createRevenueRecoveryRecommendation(analytics));
-        } else if (analytics.getRevenueChange() > REVENUE_SURGE_THRESHOLD) {
-            recommendations.add(createRevenueSurgeRecommendation(analytics));
-        }
-        
-        return recommendations;
-    }
-
-    private Recommendation createRevenueRecoveryRecommendation(Analytics analytics) {
-        return new Recommendation(
-            "rev-recovery",
-            "Revenue Recovery",
-            String.format("Revenue decreased by %.1f%%", 
-                Math.abs(analytics.getRevenueChange())),
-            "strategy",
-            "high",
-            "Stabilize revenue"
-        );
-    }
-
-    private Recommendation createRevenueSurgeRecommendation(Analytics analytics) {
-        return new Recommendation(
-            "rev-surge",
-            "Capitalize on Growth",
-            String.format("Revenue is surging with %.1f%% growth", 
-                analytics.getRevenueChange()),
-            "inventory",
-            "medium",
-            "Maintain growth momentum"
-        );
-    }
-
-    private List<Recommendation> generateSeasonalRecommendations() {
-        String weatherCondition = getRandomWeatherCondition();
-        return List.of(createWeatherRecommendation(weatherCondition));
-    }
-
-    private String getRandomWeatherCondition() {
-        return WEATHER_CONDITIONS[random.nextInt(WEATHER_CONDITIONS.length)];
-    }
-
-    private Recommendation createWeatherRecommendation(String weatherCondition) {
-        switch (weatherCondition) {
-            case "hot":
-                return createHotWeatherRecommendation();
-            case "cold":
-                return createColdWeatherRecommendation();
-            case "rainy":
-                return createRainyWeatherRecommendation();
-            default:
-                return createDefaultWeatherRecommendation();
-        }
-    }
-
-    private Recommendation createHotWeatherRecommendation() {
-        return new Recommendation(
-            "seasonal-hot",
-            "Hot Weather Promotion",
-            "Promote cooling products and summer accessories",
-            "seasonal",
-            "medium",
-            "Boost seasonal product sales"
-        );
-    }
-
-    private Recommendation createColdWeatherRecommendation() {
-        return new Recommendation(
-            "seasonal-cold",
-            "Cold Weather Strategy",
-            "Promote warm beverages and winter accessories",
-            "seasonal",
-            "medium",
-            "Increase winter product sales"
-        );
-    }
-
-    private Recommendation createRainyWeatherRecommendation() {
-        return new Recommendation(
-            "seasonal-rainy",
-            "Rainy Day Specials",
-            "Promote indoor entertainment and comfort products",
-            "seasonal",
-            "low",
-            "Increase indoor product sales"
-        );
-    }
-
-    private Recommendation createDefaultWeatherRecommendation() {
-        return new Recommendation(
-            "seasonal-default",
-            "Optimize Product Mix",
-            "Promote outdoor and recreational products",
-            "seasonal",
-            "low",
-            "Increase outdoor product sales"
-        );
+    private List<Recommendation> getRuleBasedRecommendations() {
+        return ruleEngine.getRecommendations();
     }
 
     /* ===================== VALIDATION METHODS ===================== */
@@ -304,10 +274,4 @@ public class RecommendationService {
             throw new IllegalStateException("AI service is disabled");
         }
     }
-
-    private void validateAIResponse(ResponseEntity<String> response) {
-        if (!response.getStatusCode().is2xxSuccessful()) {
-            throw new RuntimeException("AI API request failed: " + response.getStatusCode());
-        }
-    }
 }
\ No newline at end of file
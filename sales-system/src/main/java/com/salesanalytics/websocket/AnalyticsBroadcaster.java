@@ -0,0 +1,72 @@
+package com.salesanalytics.websocket;
+
+import com.salesanalytics.analytics.AnalyticsListener;
+import com.salesanalytics.analytics.AnalyticsReadModel;
+import com.salesanalytics.dto.Analytics;
+import com.salesanalytics.dto.OrderResponse;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Coalesces real-time updates. Committed orders are only enqueued and mark
+ * the analytics state dirty; once per tick the pending orders go out
+ * as a single new_order batch and at most one analytics snapshot is sent.
+ * The same snapshot is handed to every {@link AnalyticsListener}. When a
+ * dashboard has just connected or subscribed, the versioned analytics
+ * snapshot is refreshed on the next tick even without a change, so the
+ * session's baseline is at most one tick old.
+ */
+@Component
+public class AnalyticsBroadcaster {
+
+    private final SalesWebSocketHandler webSocketHandler;
+    private final AnalyticsReadModel readModel;
+    private final List<AnalyticsListener> listeners;
+
+    private final ConcurrentLinkedQueue<OrderResponse> pendingOrders = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean dirty = new AtomicBoolean();
+
+    public AnalyticsBroadcaster(
+            SalesWebSocketHandler webSocketHandler,
+            AnalyticsReadModel readModel,
+            List<AnalyticsListener> listeners) {
+        this.webSocketHandler = webSocketHandler;
+        this.readModel = readModel;
+        this.listeners = listeners;
+    }
+
+    public void ordersCreated(List<OrderResponse> orders) {
+        pendingOrders.addAll(orders);
+        dirty.set(true);
+    }
+
+    public void analyticsChanged() {
+        dirty.set(true);
+    }
+
+    @Scheduled(fixedDelayString = "${websocket.broadcast.tick-ms:250}")
+    public void flush() {
+        List<OrderResponse> orders = new ArrayList<>();
+        OrderResponse order;
+        while ((order = pendingOrders.poll()) != null) {
+            orders.add(order);
+        }
+
+        if (!orders.isEmpty()) {
+            webSocketHandler.broadcastNewOrders(orders);
+        }
+        boolean requested = webSocketHandler.takeAnalyticsRequest();
+        if (dirty.getAndSet(false)) {
+            Analytics analytics = readModel.snapshot();
+            webSocketHandler.broadcastAnalyticsUpdate(analytics);
+            listeners.forEach(listener -> listener.analyticsUpdated(analytics));
+        } else if (requested) {
+            webSocketHandler.refreshAnalytics(readModel.snapshot());
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.salesanalytics.websocket;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.salesanalytics.dto.Analytics;
+
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Numbers the analytics snapshots published on the analytics topic and
+ * computes each one's delta against the previous version.
+ *
+ * A delta holds only the top-level fields that changed, with their new
+ * value. The exception is recentOrders: when the new list is the old one
+ * with orders pushed onto the front, only those orders are sent as
+ * recentOrdersAdded, together with the resulting recentOrdersSize.
+ */
+class AnalyticsVersions {
+
+    private static final String RECENT_ORDERS = "recentOrders";
+
+    private final ObjectMapper objectMapper;
+    private final ReentrantLock lock = new ReentrantLock();
+    private long version;
+    private ObjectNode latest;
+
+    AnalyticsVersions(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /** Held while deciding between delta and snapshot for sessions, so versions are handed out in order. */
+    ReentrantLock getLock() {
+        return lock;
+    }
+
+    /**
+     * Records a new snapshot. Returns null when nothing changed since the
+     * previous version. Must be called with the lock held.
+     */
+    Update next(Analytics analytics) {
+        ObjectNode snapshot = objectMapper.valueToTree(analytics);
+        ObjectNode previous = latest;
+        ObjectNode changes = diff(previous, snapshot);
+        if (previous != null && changes.isEmpty()) {
+            return null;
+        }
+
+        long baseVersion = version;
+        version++;
+        snapshot.put("version", version);
+        latest = snapshot;
+
+        ObjectNode delta = objectMapper.createObjectNode();
+        delta.put("version", version);
+        delta.put("baseVersion", baseVersion);
+        delta.set("changes", changes);
+        return new Update(version, baseVersion, snapshot, delta);
+    }
+
+    /** The latest full snapshot (with its version), or null before the first one. Must be called with the lock held. */
+    ObjectNode current() {
+        return latest;
+    }
+
+    private ObjectNode diff(ObjectNode previous, ObjectNode snapshot) {
+        ObjectNode changes = objectMapper.createObjectNode();
+        for (Map.Entry<String, JsonNode> field : snapshot.properties()) {
+            JsonNode old = previous != null ? previous.get(field.getKey()) : null;
+            if (old != null && old.equals(field.getValue())) {
+                continue;
+            }
+            if (RECENT_ORDERS.equals(field.getKey()) && old != null) {
+                ArrayNode added = addedOrders((ArrayNode) old, (ArrayNode) field.getValue());
+                if (added != null) {
+                    changes.set("recentOrdersAdded", added);
+                    changes.put("recentOrdersSize", field.getValue().size());
+                    continue;
+                }
+            }
+            changes.set(field.getKey(), field.getValue());
+        }
+        return changes;
+    }
+
+    // Orders at the front of current that precede old's entries, or null if current isn't old shifted right
+    private ArrayNode addedOrders(ArrayNode old, ArrayNode current) {
+        if (old.isEmpty()) {
+            return null;
+        }
+        int added = -1;
+        for (int i = 0; i < current.size(); i++) {
+            if (current.get(i).equals(old.get(0))) {
+                added = i;
+                break;
+            }
+        }
+        if (added < 0) {
+            return null;
+        }
+        for (int i = added; i < current.size(); i++) {
+            if (i - added >= old.size() || !current.get(i).equals(old.get(i - added))) {
+                return null;
+            }
+        }
+
+        ArrayNode orders = objectMapper.createArrayNode();
+        for (int i = 0; i < added; i++) {
+            orders.add(current.get(i));
+        }
+        return orders;
+    }
+
+    record Update(long version, long baseVersion, ObjectNode snapshot, ObjectNode delta) {}
+}
@@ -0,0 +1,84 @@
+package com.salesanalytics.websocket;
+
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORGenerator;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * Serializes outgoing messages, and parses incoming ones, in each
+ * {@link WireFormat}. The binary mappers are copies of the application
+ * ObjectMapper, so they share its modules and settings.
+ *
+ * Binary encodings are written into a small pool of reusable output
+ * buffers per format; only the final, exactly sized payload is allocated
+ * per message, since it is shared by every queue it is sent from. JSON
+ * text goes through Jackson's own recycled string buffers.
+ */
+class MessageEncoder {
+
+    private static final int BUFFER_POOL_SIZE = 4;
+
+    private final Map<WireFormat, ObjectMapper> mappers = new EnumMap<>(WireFormat.class);
+    private final Map<WireFormat, ArrayBlockingQueue<ByteArrayBuilder>> buffers = new EnumMap<>(WireFormat.class);
+
+    MessageEncoder(ObjectMapper objectMapper) {
+        mappers.put(WireFormat.JSON, objectMapper);
+        // Product names repeat across orders; back-references make them one byte after the first
+        mappers.put(WireFormat.SMILE, objectMapper.copyWith(SmileFactory.builder()
+            .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+            .build()));
+        mappers.put(WireFormat.CBOR, objectMapper.copyWith(CBORFactory.builder()
+            .enable(CBORGenerator.Feature.WRITE_MINIMAL_INTS)
+            .enable(CBORGenerator.Feature.WRITE_MINIMAL_DOUBLES)
+            .build()));
+        for (WireFormat format : WireFormat.values()) {
+            if (format.isBinary()) {
+                buffers.put(format, new ArrayBlockingQueue<>(BUFFER_POOL_SIZE));
+            }
+        }
+    }
+
+    WebSocketMessage<?> encode(WireFormat format, Object message) throws IOException {
+        ObjectMapper mapper = mappers.get(format);
+        if (!format.isBinary()) {
+            return new TextMessage(mapper.writeValueAsString(message));
+        }
+
+        ArrayBlockingQueue<ByteArrayBuilder> pool = buffers.get(format);
+        ByteArrayBuilder buffer = pool.poll();
+        if (buffer == null) {
+            buffer = new ByteArrayBuilder();
+        }
+        try {
+            mapper.writeValue(buffer, message);
+            return new BinaryMessage(buffer.toByteArray());
+        } finally {
+            buffer.reset();
+            pool.offer(buffer);
+        }
+    }
+
+    /** Text frames are always JSON; binary frames use the session's format. */
+    JsonNode decode(WireFormat format, WebSocketMessage<?> message) throws IOException {
+        if (message instanceof TextMessage text) {
+            return mappers.get(WireFormat.JSON).readTree(text.getPayload());
+        }
+        if (message instanceof BinaryMessage binary) {
+            return mappers.get(format).readTree(new ByteBufferBackedInputStream(binary.getPayload()));
+        }
+        return null;
+    }
+}
@@ -0,0 +1,13 @@
+package com.salesanalytics.websocket;
+
+/**
+ * What a session's outbound queue does when a slow client lets it fill up.
+ */
+public enum OverflowPolicy {
+    /** Discard the oldest queued message to make room. */
+    DROP_OLDEST,
+    /** Discard everything queued except the newest analytics snapshot. */
+    LATEST_SNAPSHOT,
+    /** Close the session; the client is expected to reconnect and resync. */
+    DISCONNECT
+}
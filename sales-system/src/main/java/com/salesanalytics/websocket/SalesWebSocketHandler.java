@@ -1,46 +1,215 @@
 package com.salesanalytics.websocket;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.salesanalytics.dto.Analytics;
+import com.salesanalytics.dto.AnalyticsSummary;
 import com.salesanalytics.dto.OrderResponse;
+import com.salesanalytics.dto.Recommendation;
+import com.salesanalytics.dto.RecommendationDiff;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.springframework.web.socket.*;
 
 import java.io.IOException;
-import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
 
+/**
+ * Real-time feed over WebSocket. Every message is published to a topic
+ * (see {@link Topics}) and only reaches the sessions subscribed to it; a
+ * session starts on {@link Topics#DEFAULTS} and changes its subscriptions
+ * by sending
+ * <pre>{"action": "subscribe" | "unsubscribe", "topics": ["orders:product=Laptop", ...]}</pre>
+ * which is answered with a subscriptions message listing its topics.
+ * Messages are encoded once per topic and only when the topic has subscribers.
+ *
+ * The analytics topic is versioned: a session gets a full analytics_update
+ * (carrying its version) when it connects, subscribes, sends
+ * {"action": "resync"} or has missed a message, and otherwise an
+ * analytics_delta with only the fields changed since its previous version.
+ *
+ * Clients pick the encoding through the subprotocol at handshake (see
+ * {@link WireFormat}): JSON text by default, or Smile / CBOR binary
+ * frames. A message is encoded at most once per format it is sent in.
+ *
+ * Every heartbeat interval each session is pinged through its send queue;
+ * one that has sent nothing, not even a pong, within the idle timeout is
+ * closed, and sessions found closed are reaped from the registry.
+ */
 @Component
-public class SalesWebSocketHandler implements WebSocketHandler {
+public class SalesWebSocketHandler implements WebSocketHandler, SubProtocolCapable {
     
-    private final CopyOnWriteArraySet<WebSocketSession> sessions = new CopyOnWriteArraySet<>();
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private static final Logger logger = LoggerFactory.getLogger(SalesWebSocketHandler.class);
+    
+    private static final int MAX_TOPICS_PER_SESSION = 64;
+    
+    private final SessionRegistry registry = new SessionRegistry();
+    private final TopicIndex topicIndex = new TopicIndex();
+    private final AnalyticsVersions analyticsVersions;
+    private final MessageEncoder encoder;
+    private final Executor sendExecutor;
+    private final int sendQueueLimit;
+    private final OverflowPolicy overflowPolicy;
+    private final MeterRegistry meterRegistry;
+    private final SessionSender.Metrics senderMetrics;
+    private final long idleTimeoutNanos;
+    private final ConcurrentHashMap<EncodeKey, EncodeMeters> encodeMeters = new ConcurrentHashMap<>();
+    private final AtomicBoolean analyticsRequested = new AtomicBoolean();
+    
+    public SalesWebSocketHandler(
+            ObjectMapper objectMapper,
+            @Qualifier("webSocketSendExecutor") Executor sendExecutor,
+            MeterRegistry meterRegistry,
+            @Value("${websocket.send.queue-limit:256}") int sendQueueLimit,
+            @Value("${websocket.send.overflow:latest-snapshot}") OverflowPolicy overflowPolicy,
+            @Value("${websocket.idle-timeout-ms:60000}") long idleTimeoutMs) {
+        this.encoder = new MessageEncoder(objectMapper);
+        this.analyticsVersions = new AnalyticsVersions(objectMapper);
+        this.sendExecutor = sendExecutor;
+        this.sendQueueLimit = sendQueueLimit;
+        this.overflowPolicy = overflowPolicy;
+        this.meterRegistry = meterRegistry;
+        this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMs);
+        this.senderMetrics = new SessionSender.Metrics(
+            Timer.builder("sales.websocket.send")
+                .description("Time spent writing one message to a session")
+                .register(meterRegistry),
+            Timer.builder("sales.websocket.delivery")
+                .description("Time from enqueue to sent, per session")
+                .register(meterRegistry),
+            Counter.builder("sales.websocket.dropped")
+                .description("Messages dropped by the send queue overflow policy")
+                .register(meterRegistry));
+    }
+    
+    public int getSessionCount() {
+        return registry.size();
+    }
+    
+    /** Messages queued across all sessions. */
+    public int getQueuedMessageCount() {
+        return registry.getQueuedMessageCount();
+    }
+    
+    public int getTopicCount() {
+        return topicIndex.getTopicCount();
+    }
+    
+    public int getMaxQueueDepth() {
+        return registry.getMaxQueueDepth();
+    }
+    
+    /** Age of the oldest message waiting in any session's queue. */
+    public double getMaxLagSeconds() {
+        return registry.getMaxLagNanos() / 1e9;
+    }
     
     @Override
     public void afterConnectionEstablished(WebSocketSession session) throws Exception {
-        sessions.add(session);
-        System.out.println("WebSocket connection established: " + session.getId());
+        WireFormat format = WireFormat.fromSubProtocol(session.getAcceptedProtocol());
+        SessionSender sender = new SessionSender(session, format, sendExecutor, sendQueueLimit, overflowPolicy, senderMetrics);
+        registry.add(sender);
+        Topics.DEFAULTS.forEach(topic -> topicIndex.subscribe(sender, topic));
+        logger.debug("WebSocket connection established: {} ({})", session.getId(), format.getSubProtocol());
         
         // Send welcome message
-        WebSocketMessage welcomeMessage = new WebSocketMessage("connected", "WebSocket connection established");
-        sendMessage(session, welcomeMessage);
+        reply(sender, "connected", "WebSocket connection established");
+        sendAnalyticsSnapshot(sender);
     }
 
     @Override
     public void handleMessage(WebSocketSession session, org.springframework.web.socket.WebSocketMessage<?> message) throws Exception {
-        System.out.println("Received message: " + message.getPayload());
-
+        SessionSender sender = registry.get(session.getId());
+        if (sender == null) {
+            return;
+        }
+        sender.touch();
+        if (message instanceof PongMessage) {
+            return;
+        }
+        
+        JsonNode request;
+        try {
+            request = encoder.decode(sender.getFormat(), message);
+        } catch (IOException e) {
+            request = null;
+        }
+        if (request == null) {
+            if (message instanceof TextMessage || message instanceof BinaryMessage) {
+                reply(sender, "error", "Malformed message");
+            }
+            return;
+        }
+        
+        String action = request.path("action").asText();
+        if ("resync".equals(action)) {
+            sendAnalyticsSnapshot(sender);
+            return;
+        }
+        
+        List<String> topics = new ArrayList<>();
+        request.path("topics").forEach(topic -> topics.add(topic.asText()));
+        for (String topic : topics) {
+            if (!Topics.isValid(topic)) {
+                reply(sender, "error", "Unknown topic: " + topic);
+                return;
+            }
+        }
+        
+        switch (action) {
+            case "subscribe" -> {
+                // Topics the session already has, or that are repeated in the request, count once
+                Set<String> subscribed = new HashSet<>(sender.getTopics());
+                subscribed.addAll(topics);
+                if (subscribed.size() > MAX_TOPICS_PER_SESSION) {
+                    reply(sender, "error", "At most " + MAX_TOPICS_PER_SESSION + " topics per session");
+                    return;
+                }
+                boolean hadAnalytics = sender.getTopics().contains(Topics.ANALYTICS);
+                topics.forEach(topic -> topicIndex.subscribe(sender, topic));
+                if (!hadAnalytics && sender.getTopics().contains(Topics.ANALYTICS)) {
+                    sendAnalyticsSnapshot(sender);
+                }
+            }
+            case "unsubscribe" -> topics.forEach(topic -> topicIndex.unsubscribe(sender, topic));
+            default -> {
+                reply(sender, "error", "Unknown action: " + action);
+                return;
+            }
+        }
+        reply(sender, "subscriptions", new TreeSet<>(sender.getTopics()));
     }
     
     @Override
     public void handleTransportError(WebSocketSession session, Throwable exception) throws Exception {
-        System.err.println("WebSocket transport error: " + exception.getMessage());
-        sessions.remove(session);
+        logger.warn("WebSocket transport error on {}: {}", session.getId(), exception.getMessage());
+        unregister(session);
     }
     
     @Override
     public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
-        sessions.remove(session);
-        System.out.println("WebSocket connection closed: " + session.getId());
+        unregister(session);
+        logger.debug("WebSocket connection closed: {} ({})", session.getId(), closeStatus);
     }
     
     @Override
@@ -48,37 +217,210 @@ public class SalesWebSocketHandler implements WebSocketHandler {
         return false;
     }
     
-    public void broadcastNewOrder(OrderResponse order) {
-        WebSocketMessage message = new WebSocketMessage("new_order", order);
-        broadcast(message);
+    @Override
+    public List<String> getSubProtocols() {
+        return WireFormat.subProtocols();
+    }
+    
+    public void broadcastNewOrders(List<OrderResponse> orders) {
+        publish(Topics.ORDERS, "new_order", () -> orders);
+        
+        Map<String, List<OrderResponse>> byProduct = new HashMap<>();
+        for (OrderResponse order : orders) {
+            byProduct.computeIfAbsent(order.getProductName(), name -> new ArrayList<>()).add(order);
+        }
+        byProduct.forEach((productName, productOrders) ->
+            publish(Topics.ordersForProduct(productName), "new_order", () -> productOrders));
     }
     
     public void broadcastAnalyticsUpdate(Analytics analytics) {
-        WebSocketMessage message = new WebSocketMessage("analytics_update", analytics);
-        broadcast(message);
-    }
-    
-    private void broadcast(WebSocketMessage message) {
-        sessions.removeIf(session -> {
-            try {
-                if (session.isOpen()) {
-                    sendMessage(session, message);
-                    return false;
-                } else {
-                    return true;
+        publishAnalytics(analytics);
+        publish(Topics.ANALYTICS_SUMMARY, "analytics_summary", () -> new AnalyticsSummary(analytics));
+        publish(Topics.TOP_PRODUCTS, "top_products", analytics::getTopProducts);
+    }
+    
+    /**
+     * Whether a session has been handed the analytics snapshot since the
+     * last call. That snapshot may be as old as the last change, so the
+     * broadcaster then refreshes it on its next tick.
+     */
+    public boolean takeAnalyticsRequest() {
+        return analyticsRequested.getAndSet(false);
+    }
+    
+    /** Brings the versioned analytics snapshot up to date; sessions only get a message if it moved. */
+    public void refreshAnalytics(Analytics analytics) {
+        publishAnalytics(analytics);
+    }
+    
+    public void broadcastRecommendation(Recommendation recommendation) {
+        publish(Topics.RECOMMENDATIONS, "recommendation", () -> recommendation);
+    }
+    
+    public void broadcastRecommendationDiff(RecommendationDiff diff) {
+        publish(Topics.RECOMMENDATIONS, "recommendations_diff", () -> diff);
+    }
+    
+    private void publish(String topic, String type, Supplier<Object> data) {
+        Set<SessionSender> subscribers = topicIndex.subscribers(topic);
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        
+        // Serialize once per topic and format; subscribers share the same immutable payload
+        Broadcast broadcast = new Broadcast(type, data.get());
+        for (SessionSender sender : subscribers) {
+            org.springframework.web.socket.WebSocketMessage<?> encoded = broadcast.encoded(sender.getFormat());
+            if (encoded != null && !sender.enqueue(type, encoded)) {
+                unregister(sender);
+            }
+        }
+    }
+    
+    private void publishAnalytics(Analytics analytics) {
+        analyticsVersions.getLock().lock();
+        try {
+            // Versioned even with no subscribers, so sessions that subscribe later start from this snapshot
+            AnalyticsVersions.Update update = analyticsVersions.next(analytics);
+            Set<SessionSender> subscribers = topicIndex.subscribers(Topics.ANALYTICS);
+            if (update == null || subscribers.isEmpty()) {
+                return;
+            }
+            
+            // Delta and snapshot are shared; each is only built in the formats some session needs
+            Broadcast delta = new Broadcast("analytics_delta", update.delta());
+            Broadcast snapshot = new Broadcast("analytics_update", update.snapshot());
+            for (SessionSender sender : subscribers) {
+                boolean inSync = sender.getAnalyticsVersion() == update.baseVersion() && update.baseVersion() > 0;
+                org.springframework.web.socket.WebSocketMessage<?> message =
+                    (inSync ? delta : snapshot).encoded(sender.getFormat());
+                if (message == null) {
+                    continue;
                 }
-            } catch (Exception e) {
-                System.err.println("Error broadcasting message: " + e.getMessage());
-                return true;
+                sender.setAnalyticsVersion(update.version());
+                if (!sender.enqueue(inSync ? "analytics_delta" : "analytics_update", message)) {
+                    unregister(sender);
+                }
+            }
+        } finally {
+            analyticsVersions.getLock().unlock();
+        }
+    }
+    
+    private void sendAnalyticsSnapshot(SessionSender sender) {
+        if (!sender.getTopics().contains(Topics.ANALYTICS)) {
+            return;
+        }
+        analyticsRequested.set(true);
+        analyticsVersions.getLock().lock();
+        try {
+            ObjectNode snapshot = analyticsVersions.current();
+            if (snapshot == null) {
+                // Nothing published yet; the refresh on the next tick will be a full snapshot
+                sender.setAnalyticsVersion(0);
+                return;
+            }
+            sender.setAnalyticsVersion(snapshot.get("version").asLong());
+            reply(sender, "analytics_update", snapshot);
+        } finally {
+            analyticsVersions.getLock().unlock();
+        }
+    }
+    
+    private org.springframework.web.socket.WebSocketMessage<?> encodeBroadcast(String type, Object data, WireFormat format) {
+        long started = System.nanoTime();
+        try {
+            org.springframework.web.socket.WebSocketMessage<?> encoded = encoder.encode(format, new WebSocketMessage(type, data));
+            EncodeMeters meters = encodeMeters.computeIfAbsent(new EncodeKey(type, format), this::registerEncodeMeters);
+            meters.encode().record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            meters.payload().record(encoded.getPayloadLength());
+            return encoded;
+        } catch (IOException e) {
+            logger.warn("Error encoding {} broadcast as {}: {}", type, format.getSubProtocol(), e.getMessage());
+            return null;
+        }
+    }
+    
+    private EncodeMeters registerEncodeMeters(EncodeKey key) {
+        return new EncodeMeters(
+            Timer.builder("sales.websocket.encode")
+                .description("Time to serialize a broadcast message")
+                .tag("type", key.type())
+                .tag("format", key.format().getSubProtocol())
+                .register(meterRegistry),
+            DistributionSummary.builder("sales.websocket.payload")
+                .description("Encoded size of a broadcast message")
+                .baseUnit("bytes")
+                .tag("type", key.type())
+                .tag("format", key.format().getSubProtocol())
+                .register(meterRegistry));
+    }
+    
+    private void reply(SessionSender sender, String type, Object data) {
+        try {
+            sender.enqueue(type, encoder.encode(sender.getFormat(), new WebSocketMessage(type, data)));
+        } catch (IOException e) {
+            logger.warn("Error encoding {} reply: {}", type, e.getMessage());
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${websocket.heartbeat.interval-ms:15000}")
+    public void heartbeat() {
+        long now = System.nanoTime();
+        // Empty payload, so one instance can go to every session
+        PingMessage ping = new PingMessage();
+        registry.forEach(sender -> {
+            if (!sender.isOpen()) {
+                unregister(sender);
+            } else if (idleTimeoutNanos > 0 && now - sender.getLastActivity() > idleTimeoutNanos) {
+                logger.info("Closing idle WebSocket session: {}", sender.getSession().getId());
+                sender.close(CloseStatus.SESSION_NOT_RELIABLE);
+                unregister(sender);
+            } else if (!sender.enqueue("ping", ping)) {
+                unregister(sender);
             }
         });
     }
     
-    private void sendMessage(WebSocketSession session, WebSocketMessage message) throws IOException {
-        String json = objectMapper.writeValueAsString(message);
-        session.sendMessage(new TextMessage(json));
+    private void unregister(WebSocketSession session) {
+        SessionSender sender = registry.get(session.getId());
+        if (sender != null) {
+            unregister(sender);
+        }
     }
     
+    private void unregister(SessionSender sender) {
+        registry.remove(sender);
+        topicIndex.unsubscribeAll(sender);
+    }
+    
+    /** One broadcast message, encoded on first use in each format and then shared. */
+    private final class Broadcast {
+        private final String type;
+        private final Object data;
+        private final org.springframework.web.socket.WebSocketMessage<?>[] encoded =
+            new org.springframework.web.socket.WebSocketMessage<?>[WireFormat.values().length];
+        private final boolean[] failed = new boolean[WireFormat.values().length];
+        
+        Broadcast(String type, Object data) {
+            this.type = type;
+            this.data = data;
+        }
+        
+        org.springframework.web.socket.WebSocketMessage<?> encoded(WireFormat format) {
+            int slot = format.ordinal();
+            if (encoded[slot] == null && !failed[slot]) {
+                encoded[slot] = encodeBroadcast(type, data, format);
+                failed[slot] = encoded[slot] == null;
+            }
+            return encoded[slot];
+        }
+    }
+    
+    private record EncodeKey(String type, WireFormat format) {}
+    
+    private record EncodeMeters(Timer encode, DistributionSummary payload) {}
+    
     public static class WebSocketMessage {
         private String type;
         private Object data;
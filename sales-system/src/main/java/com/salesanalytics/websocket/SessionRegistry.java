@@ -0,0 +1,65 @@
+package com.salesanalytics.websocket;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Open sessions by session id. Adding or removing one touches a single map
+ * bin, so connection churn stays cheap however many dashboards are
+ * connected, and walking the registry allocates nothing per session.
+ *
+ * Closed sessions are not searched for on every broadcast; they are removed
+ * when a send to them fails, when the container reports the close, or by
+ * the heartbeat sweep, whichever comes first.
+ */
+class SessionRegistry {
+
+    private final ConcurrentHashMap<String, SessionSender> sessions = new ConcurrentHashMap<>();
+
+    void add(SessionSender sender) {
+        sessions.put(sender.getSession().getId(), sender);
+    }
+
+    SessionSender get(String sessionId) {
+        return sessions.get(sessionId);
+    }
+
+    /** Returns false if the sender was already removed. */
+    boolean remove(SessionSender sender) {
+        return sessions.remove(sender.getSession().getId(), sender);
+    }
+
+    int size() {
+        return sessions.size();
+    }
+
+    void forEach(Consumer<SessionSender> action) {
+        for (SessionSender sender : sessions.values()) {
+            action.accept(sender);
+        }
+    }
+
+    int getQueuedMessageCount() {
+        int queued = 0;
+        for (SessionSender sender : sessions.values()) {
+            queued += sender.getQueueDepth();
+        }
+        return queued;
+    }
+
+    int getMaxQueueDepth() {
+        int max = 0;
+        for (SessionSender sender : sessions.values()) {
+            max = Math.max(max, sender.getQueueDepth());
+        }
+        return max;
+    }
+
+    long getMaxLagNanos() {
+        long max = 0;
+        for (SessionSender sender : sessions.values()) {
+            max = Math.max(max, sender.getLagNanos());
+        }
+        return max;
+    }
+}
@@ -0,0 +1,265 @@
+package com.salesanalytics.websocket;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded outbound queue for one WebSocket session. Broadcasters only
+ * enqueue already-encoded messages; a single drain task per session
+ * performs the blocking sends on the send executor, so a slow client
+ * only ever delays itself.
+ */
+public class SessionSender {
+
+    private static final Logger logger = LoggerFactory.getLogger(SessionSender.class);
+
+    // Message types where a newer message fully replaces an older one of the same type
+    static final Set<String> SNAPSHOT_TYPES = Set.of("analytics_update", "analytics_summary", "top_products");
+    // Messages of the versioned analytics stream; losing one breaks the delta chain
+    static final Set<String> VERSIONED_TYPES = Set.of("analytics_update", "analytics_delta");
+
+    private final WebSocketSession session;
+    private final WireFormat format;
+    private final Executor executor;
+    private final int queueLimit;
+    private final OverflowPolicy overflowPolicy;
+    private final Metrics metrics;
+    private final Set<String> topics = ConcurrentHashMap.newKeySet();
+
+    private final ArrayDeque<Outbound> queue = new ArrayDeque<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final AtomicLong dropped = new AtomicLong();
+    private boolean draining;
+    private volatile boolean closed;
+    private volatile long analyticsVersion;
+    private final long connectedAt = System.nanoTime();
+    private volatile long lastActivity = connectedAt;
+
+    public SessionSender(WebSocketSession session, WireFormat format, Executor executor, int queueLimit,
+                         OverflowPolicy overflowPolicy, Metrics metrics) {
+        this.session = session;
+        this.format = format;
+        this.executor = executor;
+        this.queueLimit = Math.max(1, queueLimit);
+        this.overflowPolicy = overflowPolicy;
+        this.metrics = metrics;
+    }
+
+    public WebSocketSession getSession() {
+        return session;
+    }
+
+    /** Encoding negotiated at handshake; every message queued here must be in it. */
+    public WireFormat getFormat() {
+        return format;
+    }
+
+    /** Topics this session is subscribed to; maintained by {@link TopicIndex}. */
+    public Set<String> getTopics() {
+        return topics;
+    }
+
+    /**
+     * Version of the last analytics snapshot or delta queued for this
+     * session, or 0 when the client's state is unknown and the next update
+     * must be a full snapshot.
+     */
+    public long getAnalyticsVersion() {
+        return analyticsVersion;
+    }
+
+    public void setAnalyticsVersion(long analyticsVersion) {
+        this.analyticsVersion = analyticsVersion;
+    }
+
+    /** nanoTime of the last frame received from the client, pongs included. */
+    public long getLastActivity() {
+        return lastActivity;
+    }
+
+    public void touch() {
+        lastActivity = System.nanoTime();
+    }
+
+    public long getConnectedAt() {
+        return connectedAt;
+    }
+
+    /** How long the oldest queued message has been waiting, 0 when the queue is empty. */
+    public long getLagNanos() {
+        lock.lock();
+        try {
+            Outbound oldest = queue.peekFirst();
+            return oldest != null ? System.nanoTime() - oldest.enqueuedAt() : 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean isOpen() {
+        return !closed && session.isOpen();
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public int getQueueDepth() {
+        lock.lock();
+        try {
+            return queue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Queues an encoded message for this session. Returns false when the
+     * session is closed, including when the overflow policy closed it.
+     */
+    public boolean enqueue(String type, WebSocketMessage<?> message) {
+        if (!isOpen()) {
+            return false;
+        }
+
+        boolean disconnect = false;
+        boolean schedule = false;
+        lock.lock();
+        try {
+            if (queue.size() >= queueLimit) {
+                switch (overflowPolicy) {
+                    case DROP_OLDEST -> dropOldest();
+                    case LATEST_SNAPSHOT -> keepLatestSnapshot();
+                    case DISCONNECT -> disconnect = true;
+                }
+            }
+            if (!disconnect) {
+                queue.addLast(new Outbound(type, message, System.nanoTime()));
+                if (!draining) {
+                    draining = true;
+                    schedule = true;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (disconnect) {
+            logger.warn("Closing slow WebSocket session {} after its send queue reached {}", session.getId(), queueLimit);
+            close(CloseStatus.SESSION_NOT_RELIABLE);
+            return false;
+        }
+        if (schedule) {
+            executor.execute(this::drain);
+        }
+        return true;
+    }
+
+    public void close(CloseStatus status) {
+        closed = true;
+        lock.lock();
+        try {
+            queue.clear();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            session.close(status);
+        } catch (IOException e) {
+            logger.debug("Error closing WebSocket session {}: {}", session.getId(), e.getMessage());
+        }
+    }
+
+    private void drain() {
+        while (true) {
+            Outbound next;
+            lock.lock();
+            try {
+                next = queue.pollFirst();
+                if (next == null || closed) {
+                    draining = false;
+                    return;
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            try {
+                long started = System.nanoTime();
+                session.sendMessage(next.message());
+                long sent = System.nanoTime();
+                metrics.send().record(sent - started, TimeUnit.NANOSECONDS);
+                metrics.delivery().record(sent - next.enqueuedAt(), TimeUnit.NANOSECONDS);
+            } catch (IOException | RuntimeException e) {
+                logger.warn("Error sending to WebSocket session {}: {}", session.getId(), e.getMessage());
+                lock.lock();
+                try {
+                    draining = false;
+                } finally {
+                    lock.unlock();
+                }
+                close(CloseStatus.SERVER_ERROR);
+                return;
+            }
+        }
+    }
+
+    private void dropOldest() {
+        Outbound oldest = queue.pollFirst();
+        if (oldest != null && VERSIONED_TYPES.contains(oldest.type())) {
+            analyticsVersion = 0;
+        }
+        dropped.incrementAndGet();
+        metrics.dropped().increment();
+    }
+
+    // A newer snapshot supersedes everything queued before it; keep the latest one of each snapshot type
+    private void keepLatestSnapshot() {
+        List<Outbound> latest = new ArrayList<>(SNAPSHOT_TYPES.size());
+        for (var it = queue.descendingIterator(); it.hasNext(); ) {
+            Outbound outbound = it.next();
+            if (SNAPSHOT_TYPES.contains(outbound.type())
+                    && latest.stream().noneMatch(kept -> kept.type().equals(outbound.type()))) {
+                latest.add(0, outbound);
+            }
+        }
+        int superseded = queue.size() - latest.size();
+        for (Outbound outbound : queue) {
+            if (!latest.contains(outbound) && VERSIONED_TYPES.contains(outbound.type())) {
+                analyticsVersion = 0;
+                break;
+            }
+        }
+        dropped.addAndGet(superseded);
+        metrics.dropped().increment(superseded);
+        queue.clear();
+        queue.addAll(latest);
+        while (queue.size() >= queueLimit) {
+            dropOldest();
+        }
+    }
+
+    private record Outbound(String type, WebSocketMessage<?> message, long enqueuedAt) {}
+
+    /**
+     * Meters shared by all senders: time spent in sendMessage, time from
+     * enqueue to sent, and messages dropped by the overflow policy.
+     */
+    public record Metrics(Timer send, Timer delivery, Counter dropped) {}
+}
@@ -0,0 +1,51 @@
+package com.salesanalytics.websocket;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Inverted index from topic to the sessions subscribed to it, so a
+ * broadcast only visits (and only encodes for) interested sessions. Each
+ * sender also keeps its own topic set, which is what unsubscribing on
+ * disconnect walks.
+ */
+class TopicIndex {
+
+    private final ConcurrentHashMap<String, Set<SessionSender>> subscribers = new ConcurrentHashMap<>();
+
+    void subscribe(SessionSender sender, String topic) {
+        if (sender.getTopics().add(topic)) {
+            // Add inside compute so a concurrent unsubscribe can't drop the set we add to
+            subscribers.compute(topic, (key, senders) -> {
+                Set<SessionSender> target = senders != null ? senders : ConcurrentHashMap.newKeySet();
+                target.add(sender);
+                return target;
+            });
+        }
+    }
+
+    void unsubscribe(SessionSender sender, String topic) {
+        if (sender.getTopics().remove(topic)) {
+            subscribers.computeIfPresent(topic, (key, senders) -> {
+                senders.remove(sender);
+                return senders.isEmpty() ? null : senders;
+            });
+        }
+    }
+
+    void unsubscribeAll(SessionSender sender) {
+        for (String topic : List.copyOf(sender.getTopics())) {
+            unsubscribe(sender, topic);
+        }
+    }
+
+    Set<SessionSender> subscribers(String topic) {
+        Set<SessionSender> senders = subscribers.get(topic);
+        return senders != null ? senders : Set.of();
+    }
+
+    int getTopicCount() {
+        return subscribers.size();
+    }
+}
@@ -0,0 +1,47 @@
+package com.salesanalytics.websocket;
+
+import java.util.List;
+
+/**
+ * Subscription topics understood by {@link SalesWebSocketHandler}.
+ *
+ * <ul>
+ *   <li>{@code orders} - every new_order batch</li>
+ *   <li>{@code orders:product=X} - new_order batches holding only product X</li>
+ *   <li>{@code analytics} - the full analytics_update snapshot</li>
+ *   <li>{@code analytics:summary} - analytics_summary, the snapshot without orders and products</li>
+ *   <li>{@code topProducts} - top_products, the top products list only</li>
+ *   <li>{@code recommendations} - recommendation and recommendations_diff messages</li>
+ * </ul>
+ */
+public final class Topics {
+
+    public static final String ORDERS = "orders";
+    public static final String ORDERS_PRODUCT_PREFIX = "orders:product=";
+    public static final String ANALYTICS = "analytics";
+    public static final String ANALYTICS_SUMMARY = "analytics:summary";
+    public static final String TOP_PRODUCTS = "topProducts";
+    public static final String RECOMMENDATIONS = "recommendations";
+
+    /** What a session receives until it changes its subscriptions: the full feed. */
+    public static final List<String> DEFAULTS = List.of(ORDERS, ANALYTICS, RECOMMENDATIONS);
+
+    private Topics() {}
+
+    public static String ordersForProduct(String productName) {
+        return ORDERS_PRODUCT_PREFIX + productName;
+    }
+
+    public static boolean isValid(String topic) {
+        if (topic == null) {
+            return false;
+        }
+        if (topic.startsWith(ORDERS_PRODUCT_PREFIX)) {
+            return topic.length() > ORDERS_PRODUCT_PREFIX.length();
+        }
+        return switch (topic) {
+            case ORDERS, ANALYTICS, ANALYTICS_SUMMARY, TOP_PRODUCTS, RECOMMENDATIONS -> true;
+            default -> false;
+        };
+    }
+}
@@ -0,0 +1,50 @@
+package com.salesanalytics.websocket;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Encoding of the messages exchanged with one session, negotiated through
+ * the WebSocket subprotocol at handshake. Sessions that request no
+ * subprotocol get JSON text frames; smile and cbor sessions get the same
+ * messages as binary frames.
+ */
+public enum WireFormat {
+    JSON("json", false),
+    SMILE("smile", true),
+    CBOR("cbor", true);
+
+    private final String subProtocol;
+    private final boolean binary;
+
+    WireFormat(String subProtocol, boolean binary) {
+        this.subProtocol = subProtocol;
+        this.binary = binary;
+    }
+
+    public String getSubProtocol() {
+        return subProtocol;
+    }
+
+    public boolean isBinary() {
+        return binary;
+    }
+
+    public static List<String> subProtocols() {
+        List<String> protocols = new ArrayList<>();
+        for (WireFormat format : values()) {
+            protocols.add(format.subProtocol);
+        }
+        return protocols;
+    }
+
+    /** Format for the subprotocol accepted at handshake; JSON when none was negotiated. */
+    public static WireFormat fromSubProtocol(String subProtocol) {
+        for (WireFormat format : values()) {
+            if (format.subProtocol.equalsIgnoreCase(subProtocol)) {
+                return format;
+            }
+        }
+        return JSON;
+    }
+}